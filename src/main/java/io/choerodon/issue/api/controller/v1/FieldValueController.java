@@ -9,12 +9,16 @@ import io.choerodon.issue.api.vo.*;
 import io.choerodon.issue.app.service.FieldValueService;
 import io.choerodon.issue.app.service.ObjectSchemeFieldService;
 import io.choerodon.issue.app.service.PageFieldService;
+import io.choerodon.issue.infra.cache.PageFieldLayoutCache;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -28,6 +32,8 @@ import java.util.Map;
 @RequestMapping("/v1/projects/{project_id}/field_value")
 public class FieldValueController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     private PageFieldService pageFieldService;
     @Autowired
@@ -43,8 +49,16 @@ public class FieldValueController {
                                                                         @ApiParam(value = "组织id", required = true)
                                                                          @RequestParam Long organizationId,
                                                                         @ApiParam(value = "参数对象", required = true)
-                                                                         @RequestBody @Valid PageFieldViewParamVO paramDTO) {
-        return new ResponseEntity<>(pageFieldService.queryPageFieldViewList(organizationId, projectId, paramDTO), HttpStatus.OK);
+                                                                         @RequestBody @Valid PageFieldViewParamVO paramDTO,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PageFieldLayoutCache.Layout layout = pageFieldService.queryPageFieldViewLayout(organizationId, projectId, paramDTO);
+        if (layout.getEtag() == null) {
+            return new ResponseEntity<>(pageFieldService.buildPageFieldViews(layout), HttpStatus.OK);
+        }
+        if (layout.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(layout.getEtag()).build();
+        }
+        return ResponseEntity.ok().eTag(layout.getEtag()).body(pageFieldService.buildPageFieldViews(layout));
     }
 
     @Permission(type = ResourceType.PROJECT, roles = {InitRoleCode.PROJECT_MEMBER, InitRoleCode.PROJECT_OWNER})
@@ -123,6 +137,19 @@ public class FieldValueController {
         return new ResponseEntity<>(pageFieldService.queryFieldValueWithIssueIdsForAgileExport(organizationId, projectId, instanceIds), HttpStatus.OK);
     }
 
+    @Permission(type = ResourceType.PROJECT, roles = {InitRoleCode.PROJECT_MEMBER, InitRoleCode.PROJECT_OWNER})
+    @ApiOperation(value = "【敏捷专用】根据issueId流式导出自定义字段CodeValue，每行一个实例（NDJSON）")
+    @PostMapping(value = "/query/instanceIds/stream", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFieldValueWithIssueIds(@ApiParam(value = "组织id", required = true)
+                                                                              @RequestParam Long organizationId,
+                                                                              @ApiParam(value = "项目id", required = true)
+                                                                              @PathVariable("project_id") Long projectId,
+                                                                              @ApiParam(value = "实例ids", required = true)
+                                                                              @RequestBody List<Long> instanceIds) {
+        StreamingResponseBody body = outputStream -> fieldValueService.exportFieldValueMapWithInstanceIds(organizationId, projectId, instanceIds, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
     @Permission(type = ResourceType.PROJECT, roles = {InitRoleCode.PROJECT_MEMBER, InitRoleCode.PROJECT_OWNER})
     @ApiOperation(value = "【敏捷专用】获取instanceIds，根据指定自定义字段进行排序")
     @PostMapping("/sort/getInstanceIds")
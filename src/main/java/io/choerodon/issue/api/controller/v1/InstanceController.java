@@ -4,13 +4,19 @@ import io.choerodon.base.annotation.Permission;
 import io.choerodon.base.enums.ResourceType;
 import io.choerodon.core.base.BaseController;
 import io.choerodon.issue.api.vo.ExecuteResult;
+import io.choerodon.issue.api.vo.ExecuteTransformVO;
 import io.choerodon.issue.api.vo.InputVO;
 import io.choerodon.issue.api.vo.StateMachineTransformVO;
 import io.choerodon.issue.app.service.InstanceService;
 import io.choerodon.issue.infra.cache.InstanceCache;
 import io.choerodon.issue.api.vo.payload.TransformInfo;
+import io.choerodon.issue.infra.feign.CallbackConcurrencyLimiter;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +24,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * @author shinan.chen
@@ -26,11 +34,20 @@ import java.util.Map;
 @RestController
 @RequestMapping(value = "/v1/organizations/{organization_id}/instances")
 public class InstanceController extends BaseController {
+    /**
+     * 转换线程池已满时建议调用方重试的间隔(秒)
+     */
+    private static final String BUSY_RETRY_AFTER_SECONDS = "1";
 
     @Autowired
     private InstanceService instanceService;
     @Autowired
     private InstanceCache instanceCache;
+    @Autowired
+    @Qualifier("callbackExecutor")
+    private AsyncTaskExecutor callbackExecutor;
+    @Autowired
+    private CallbackConcurrencyLimiter callbackConcurrencyLimiter;
 
     @Permission(type = ResourceType.ORGANIZATION)
     @ApiOperation(value = "创建状态机实例")
@@ -56,6 +73,27 @@ public class InstanceController extends BaseController {
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    @Permission(type = ResourceType.ORGANIZATION)
+    @ApiOperation(value = "异步执行状态转换，并返回转换后的状态，调用对应服务期间不占用请求线程")
+    @PostMapping(value = "/execute_transform_async")
+    public CompletableFuture<ResponseEntity<ExecuteResult>> executeTransformAsync(@PathVariable("organization_id") Long organizationId,
+                                                                                  @RequestParam("service_code") String serviceCode,
+                                                                                  @RequestParam("state_machine_id") Long stateMachineId,
+                                                                                  @RequestParam("current_status_id") Long currentStatusId,
+                                                                                  @RequestParam("transform_id") Long transformId,
+                                                                                  @RequestBody InputVO inputVO) {
+        return supplyAsync(serviceCode, () -> instanceService.executeTransform(organizationId, serviceCode, stateMachineId, currentStatusId, transformId, inputVO));
+    }
+
+    @Permission(type = ResourceType.ORGANIZATION)
+    @ApiOperation(value = "批量执行状态转换，并返回每个实例转换后的状态")
+    @PostMapping(value = "/execute_transforms")
+    public ResponseEntity<List<ExecuteResult>> executeTransforms(@PathVariable("organization_id") Long organizationId,
+                                                                 @RequestParam("service_code") String serviceCode,
+                                                                 @RequestBody List<ExecuteTransformVO> executeTransformVOS) {
+        return new ResponseEntity<>(instanceService.executeTransforms(organizationId, serviceCode, executeTransformVOS), HttpStatus.OK);
+    }
+
     @Permission(type = ResourceType.ORGANIZATION)
     @ApiOperation(value = "获取当前状态拥有的转换列表，feign调用对应服务的条件验证")
     @GetMapping(value = "/transform_list")
@@ -67,6 +105,17 @@ public class InstanceController extends BaseController {
         return new ResponseEntity<>(instanceService.queryListTransform(organizationId, serviceCode, stateMachineId, instanceId, currentStateId), HttpStatus.OK);
     }
 
+    @Permission(type = ResourceType.ORGANIZATION)
+    @ApiOperation(value = "异步获取当前状态拥有的转换列表，调用对应服务期间不占用请求线程")
+    @GetMapping(value = "/transform_list_async")
+    public CompletableFuture<ResponseEntity<List<TransformInfo>>> queryListTransformAsync(@PathVariable("organization_id") Long organizationId,
+                                                                                          @RequestParam("service_code") String serviceCode,
+                                                                                          @RequestParam("state_machine_id") Long stateMachineId,
+                                                                                          @RequestParam("instance_id") Long instanceId,
+                                                                                          @RequestParam("current_status_id") Long currentStateId) {
+        return supplyAsync(serviceCode, () -> instanceService.queryListTransform(organizationId, serviceCode, stateMachineId, instanceId, currentStateId));
+    }
+
     @Permission(type = ResourceType.ORGANIZATION)
     @ApiOperation(value = "获取状态机的初始状态")
     @GetMapping(value = "/query_init_status_id")
@@ -103,4 +152,17 @@ public class InstanceController extends BaseController {
             instanceCache.cleanInstanceTask();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 在转换线程池中执行，线程池与队列都满时直接返回503，与服务并发上限的拒绝一起计入拒绝次数
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> supplyAsync(String serviceCode, Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(() -> new ResponseEntity<>(supplier.get(), HttpStatus.OK), callbackExecutor);
+        } catch (TaskRejectedException e) {
+            callbackConcurrencyLimiter.recordRejected(serviceCode, CallbackConcurrencyLimiter.REJECTED_BY_EXECUTOR);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, BUSY_RETRY_AFTER_SECONDS).build());
+        }
+    }
+}
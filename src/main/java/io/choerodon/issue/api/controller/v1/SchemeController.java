@@ -12,10 +12,12 @@ import io.choerodon.issue.api.vo.StatusVO;
 import io.choerodon.issue.app.service.PriorityService;
 import io.choerodon.issue.app.service.ProjectConfigService;
 import io.choerodon.issue.api.vo.payload.TransformVO;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.utils.ProjectUtil;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -71,8 +73,13 @@ public class SchemeController extends BaseController {
     @ApiOperation(value = "查询项目下所有问题类型所有状态对应的转换")
     @GetMapping(value = "/schemes/query_transforms_map")
     public ResponseEntity<Map<Long, Map<Long, List<TransformVO>>>> queryTransformsMapByProjectId(@PathVariable("project_id") Long projectId,
-                                                                                                 @RequestParam("apply_type") String applyType) {
-        return new ResponseEntity<>(projectConfigService.queryTransformsMapByProjectId(projectId, applyType), HttpStatus.OK);
+                                                                                                 @RequestParam("apply_type") String applyType,
+                                                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        WorkflowSnapshotCache.Snapshot snapshot = projectConfigService.queryWorkflowSnapshot(projectId, applyType);
+        if (snapshot.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(snapshot.getTransformsMap());
     }
 
     @Permission(type = ResourceType.PROJECT, roles = {InitRoleCode.PROJECT_MEMBER, InitRoleCode.PROJECT_OWNER})
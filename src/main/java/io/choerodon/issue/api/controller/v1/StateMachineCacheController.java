@@ -0,0 +1,36 @@
+package io.choerodon.issue.api.controller.v1;
+
+import io.choerodon.base.annotation.Permission;
+import io.choerodon.base.enums.ResourceType;
+import io.choerodon.issue.infra.cache.CacheInvalidationChannel;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 副本之间的本地缓存失效通知，由发起变更的副本直接调用，只允许服务间内部调用
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@RestController
+@RequestMapping(value = "/v1/statemachine/cache")
+public class StateMachineCacheController {
+
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    @Permission(type = ResourceType.SITE, permissionWithin = true)
+    @ApiOperation(value = "清除本副本中的缓存项")
+    @PostMapping(value = "/clean")
+    public ResponseEntity<Void> clean(@RequestParam("cache_name") String cacheName,
+                                      @RequestParam("key") Long key) {
+        invalidationChannel.receive(cacheName, key);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
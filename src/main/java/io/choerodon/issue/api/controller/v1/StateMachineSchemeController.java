@@ -7,6 +7,7 @@ import io.choerodon.base.enums.ResourceType;
 import com.github.pagehelper.PageInfo;
 import io.choerodon.core.exception.CommonException;
 import io.choerodon.issue.api.vo.StateMachineSchemeConfigVO;
+import io.choerodon.issue.api.vo.StateMachineSchemeDeployProgressVO;
 import io.choerodon.issue.api.vo.StateMachineSchemeVO;
 import io.choerodon.issue.api.vo.payload.StateMachineSchemeChangeItem;
 import io.choerodon.issue.app.service.StateMachineSchemeConfigService;
@@ -145,4 +146,12 @@ public class StateMachineSchemeController {
                                                         @RequestParam("deployProgress") Integer deployProgress) {
         return new ResponseEntity<>(schemeService.updateDeployProgress(organizationId, schemeId, deployProgress), HttpStatus.OK);
     }
+
+    @Permission(type = ResourceType.ORGANIZATION)
+    @ApiOperation(value = "查询状态机方案发布进度")
+    @GetMapping(value = "/deploy_progress/{scheme_id}")
+    public ResponseEntity<StateMachineSchemeDeployProgressVO> queryDeployProgress(@PathVariable("organization_id") Long organizationId,
+                                                                                  @PathVariable("scheme_id") Long schemeId) {
+        return new ResponseEntity<>(schemeService.queryDeployProgress(organizationId, schemeId), HttpStatus.OK);
+    }
 }
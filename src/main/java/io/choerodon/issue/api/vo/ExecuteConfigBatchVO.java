@@ -0,0 +1,52 @@
+package io.choerodon.issue.api.vo;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 批量调用对应服务执行转换配置时的单个实例，对应服务依次执行条件、验证与后置动作
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public class ExecuteConfigBatchVO {
+    @ApiModelProperty(value = "转换的目标状态id")
+    private Long targetStatusId;
+    @ApiModelProperty(value = "转换的条件策略")
+    private String conditionStrategy;
+    @ApiModelProperty(value = "转换类型")
+    private String transformType;
+    @ApiModelProperty(value = "执行转换的输入，包含条件、验证与后置动作的配置")
+    private InputVO inputVO;
+
+    public Long getTargetStatusId() {
+        return targetStatusId;
+    }
+
+    public void setTargetStatusId(Long targetStatusId) {
+        this.targetStatusId = targetStatusId;
+    }
+
+    public String getConditionStrategy() {
+        return conditionStrategy;
+    }
+
+    public void setConditionStrategy(String conditionStrategy) {
+        this.conditionStrategy = conditionStrategy;
+    }
+
+    public String getTransformType() {
+        return transformType;
+    }
+
+    public void setTransformType(String transformType) {
+        this.transformType = transformType;
+    }
+
+    public InputVO getInputVO() {
+        return inputVO;
+    }
+
+    public void setInputVO(InputVO inputVO) {
+        this.inputVO = inputVO;
+    }
+}
@@ -0,0 +1,62 @@
+package io.choerodon.issue.api.vo;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 批量执行状态转换的单个实例
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public class ExecuteTransformVO {
+    @ApiModelProperty(value = "实例id（issueId）")
+    private Long instanceId;
+    @ApiModelProperty(value = "状态机id")
+    private Long stateMachineId;
+    @ApiModelProperty(value = "当前状态id")
+    private Long currentStatusId;
+    @ApiModelProperty(value = "转换id")
+    private Long transformId;
+    @ApiModelProperty(value = "执行转换的输入")
+    private InputVO inputVO;
+
+    public Long getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(Long instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public Long getStateMachineId() {
+        return stateMachineId;
+    }
+
+    public void setStateMachineId(Long stateMachineId) {
+        this.stateMachineId = stateMachineId;
+    }
+
+    public Long getCurrentStatusId() {
+        return currentStatusId;
+    }
+
+    public void setCurrentStatusId(Long currentStatusId) {
+        this.currentStatusId = currentStatusId;
+    }
+
+    public Long getTransformId() {
+        return transformId;
+    }
+
+    public void setTransformId(Long transformId) {
+        this.transformId = transformId;
+    }
+
+    public InputVO getInputVO() {
+        return inputVO;
+    }
+
+    public void setInputVO(InputVO inputVO) {
+        this.inputVO = inputVO;
+    }
+}
@@ -0,0 +1,62 @@
+package io.choerodon.issue.api.vo;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 状态机方案的发布进度
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public class StateMachineSchemeDeployProgressVO {
+    @ApiModelProperty(value = "状态机方案id")
+    private Long schemeId;
+    @ApiModelProperty(value = "发布的状态（doing/done）")
+    private String deployStatus;
+    @ApiModelProperty(value = "整体发布进度（0-100）")
+    private Integer deployProgress;
+    @ApiModelProperty(value = "批次总数")
+    private Integer batchCount;
+    @ApiModelProperty(value = "已完成的批次数")
+    private Integer batchDone;
+
+    public Long getSchemeId() {
+        return schemeId;
+    }
+
+    public void setSchemeId(Long schemeId) {
+        this.schemeId = schemeId;
+    }
+
+    public String getDeployStatus() {
+        return deployStatus;
+    }
+
+    public void setDeployStatus(String deployStatus) {
+        this.deployStatus = deployStatus;
+    }
+
+    public Integer getDeployProgress() {
+        return deployProgress;
+    }
+
+    public void setDeployProgress(Integer deployProgress) {
+        this.deployProgress = deployProgress;
+    }
+
+    public Integer getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(Integer batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public Integer getBatchDone() {
+        return batchDone;
+    }
+
+    public void setBatchDone(Integer batchDone) {
+        this.batchDone = batchDone;
+    }
+}
@@ -12,10 +12,37 @@ public class StateMachineSchemeDeployUpdateIssue {
     private Long schemeId;
     private Long organizationId;
     private Long userId;
+    /**
+     * 发起发布的用户的登录名、语言与时区，定时任务继续发送批次时以该用户的上下文发送
+     */
+    private String userName;
+    private String language;
+    private String timeZone;
     private List<ProjectConfigDTO> projectConfigs;
     private List<StateMachineSchemeChangeItem> changeItems;
     private List<RemoveStatusWithProject> removeStatusWithProjects;
     private List<AddStatusWithProject> addStatusWithProjects;
+    /**
+     * 当前批次（从0开始）与批次总数，每个批次只包含部分项目
+     */
+    private Integer batch;
+    private Integer batchCount;
+
+    public Integer getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Integer batch) {
+        this.batch = batch;
+    }
+
+    public Integer getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(Integer batchCount) {
+        this.batchCount = batchCount;
+    }
 
     public Long getUserId() {
         return userId;
@@ -25,6 +52,30 @@ public class StateMachineSchemeDeployUpdateIssue {
         this.userId = userId;
     }
 
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     public Long getSchemeId() {
         return schemeId;
     }
@@ -3,6 +3,8 @@ package io.choerodon.issue.app.service;
 import io.choerodon.base.domain.PageRequest;
 import io.choerodon.issue.api.vo.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -80,6 +82,26 @@ public interface FieldValueService {
      */
     Map<String, String> queryFieldValueMapWithInstanceId(Long organizationId, Long projectId, Long instanceId);
 
+    /**
+     * 根据instanceIds批量查询全部自定义字段的CodeValue键值对，按分片查询字段值，用户与字段定义各只查询一次
+     *
+     * @param organizationId
+     * @param projectId
+     * @param instanceIds
+     * @return 实例id -> (字段编码 -> 值)
+     */
+    Map<Long, Map<String, String>> queryFieldValueMapWithInstanceIds(Long organizationId, Long projectId, List<Long> instanceIds);
+
+    /**
+     * 根据instanceIds逐行读取自定义字段的CodeValue键值对，每个实例以一行json写出（NDJSON），不在内存中保留全部结果
+     *
+     * @param organizationId
+     * @param projectId
+     * @param instanceIds
+     * @param outputStream
+     */
+    void exportFieldValueMapWithInstanceIds(Long organizationId, Long projectId, List<Long> instanceIds, OutputStream outputStream) throws IOException;
+
     /**
      * 获取instanceIds，根据指定自定义字段进行排序
      *
@@ -1,11 +1,13 @@
 package io.choerodon.issue.app.service;
 
+import io.choerodon.issue.api.vo.ExecuteConfigBatchVO;
 import io.choerodon.issue.api.vo.ExecuteResult;
+import io.choerodon.issue.api.vo.ExecuteTransformVO;
 import io.choerodon.issue.api.vo.InputVO;
 import io.choerodon.issue.api.vo.StateMachineConfigVO;
 import io.choerodon.issue.api.vo.StateMachineTransformVO;
 import io.choerodon.issue.api.vo.payload.TransformInfo;
-import org.springframework.statemachine.StateContext;
+import io.choerodon.issue.infra.dto.StateMachineTransformDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -55,28 +57,62 @@ public interface InstanceService {
     List<TransformInfo> queryListTransform(Long organizationId, String serviceCode, Long stateMachineId, Long instanceId, Long statusId);
 
     /**
-     * 调用相应服务，验证转换
+     * 批量执行状态转换，返回与入参顺序一致的执行结果
      *
      * @param organizationId
+     * @param serviceCode        请求服务code
+     * @param executeTransformVOS 待转换的实例列表
+     * @return
+     */
+    List<ExecuteResult> executeTransforms(Long organizationId, String serviceCode, List<ExecuteTransformVO> executeTransformVOS);
+
+    /**
+     * 调用相应服务，验证转换
+     *
      * @param serviceCode
-     * @param transformId
+     * @param transform        已发布的转换
+     * @param conditionConfigs 转换的条件配置
+     * @param validatorConfigs 转换的验证配置
      * @param inputVO
-     * @param context        状态机上下文，传递参数
      * @return
      */
-    Boolean validatorGuard(Long organizationId, String serviceCode, Long transformId, InputVO inputVO, StateContext<String, String> context);
+    ExecuteResult validatorGuard(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> conditionConfigs, List<StateMachineConfigVO> validatorConfigs, InputVO inputVO);
 
     /**
      * 调用相应服务，执行后置动作
      *
-     * @param organizationId
      * @param serviceCode
-     * @param transformId
+     * @param transform      已发布的转换
+     * @param actionConfigs  转换的后置动作配置
+     * @param targetStatusId 转换的目标状态id
+     * @param inputVO
+     * @return
+     */
+    ExecuteResult postAction(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> actionConfigs, Long targetStatusId, InputVO inputVO);
+
+    /**
+     * 调用相应服务，一次请求中依次执行条件、验证与后置动作，任一步失败时不再执行后续步骤
+     *
+     * @param serviceCode
+     * @param transform        已发布的转换
+     * @param conditionConfigs 转换的条件配置
+     * @param validatorConfigs 转换的验证配置
+     * @param actionConfigs    转换的后置动作配置
+     * @param targetStatusId   转换的目标状态id
      * @param inputVO
-     * @param context        状态机上下文，传递参数
      * @return
      */
-    Boolean postAction(Long organizationId, String serviceCode, Long transformId, InputVO inputVO, StateContext<String, String> context);
+    ExecuteResult executeAllConfigs(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> conditionConfigs, List<StateMachineConfigVO> validatorConfigs, List<StateMachineConfigVO> actionConfigs, Long targetStatusId, InputVO inputVO);
+
+    /**
+     * 调用相应服务，一次请求中执行多个实例的转换配置，每个实例依次执行条件、验证与后置动作，
+     * 调用失败时所有实例均返回失败
+     *
+     * @param serviceCode
+     * @param executeConfigBatchVOS
+     * @return 按请求顺序返回每个实例的结果
+     */
+    List<ExecuteResult> executeConfigBatch(String serviceCode, List<ExecuteConfigBatchVO> executeConfigBatchVOS);
 
     /**
      * 条件
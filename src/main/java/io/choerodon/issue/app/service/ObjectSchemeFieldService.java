@@ -20,6 +20,16 @@ public interface ObjectSchemeFieldService {
 
     ObjectSchemeFieldDTO baseQueryById(Long organizationId, Long projectId, Long fieldId);
 
+    /**
+     * 批量查询字段，范围校验与baseQueryById一致；不存在的字段不在结果中，不抛出异常
+     *
+     * @param organizationId
+     * @param projectId
+     * @param fieldIds
+     * @return 字段id -> 字段
+     */
+    Map<Long, ObjectSchemeFieldDTO> baseQueryByIds(Long organizationId, Long projectId, List<Long> fieldIds);
+
     List<ObjectSchemeFieldDTO> listQuery(Long organizationId, Long projectId, ObjectSchemeFieldSearchVO searchDTO);
 
     ObjectSchemeFieldDTO queryByFieldCode(Long organizationId, Long projectId, String fieldCode);
@@ -95,4 +105,9 @@ public interface ObjectSchemeFieldService {
     Boolean checkCode(Long organizationId, Long projectId, String code, String schemeCode);
 
     List<AgileIssueHeadVO> getIssueHeadForAgile(Long organizationId, Long projectId, String schemeCode);
+
+    /**
+     * 拆分还没有保存上下文的字段（如初始化数据导入的系统字段）的上下文
+     */
+    void syncContexts();
 }
@@ -1,6 +1,7 @@
 package io.choerodon.issue.app.service;
 
 import io.choerodon.issue.api.vo.*;
+import io.choerodon.issue.infra.cache.PageFieldLayoutCache;
 import io.choerodon.issue.infra.dto.ObjectSchemeFieldDTO;
 import io.choerodon.issue.infra.dto.PageFieldDTO;
 
@@ -94,6 +95,45 @@ public interface PageFieldService {
      */
     void deleteByFieldId(Long fieldId);
 
+    /**
+     * 查询存在过长rank的页面，返回organizationId、projectId与pageId
+     *
+     * @return
+     */
+    List<PageFieldDTO> queryLongRankPages();
+
+    /**
+     * 按原有顺序重新分配页面下所有页面字段的rank
+     *
+     * @param organizationId
+     * @param projectId
+     * @param pageId
+     */
+    void rebalanceRank(Long organizationId, Long projectId, Long pageId);
+
+    /**
+     * 字段上下文已拆分完成，之后按上下文过滤页面字段时使用object_scheme_field_context
+     */
+    void markContextSynced();
+
+    /**
+     * 获取项目页面字段布局的缓存，带有字段选项与默认值
+     *
+     * @param organizationId
+     * @param projectId
+     * @param paramDTO
+     * @return
+     */
+    PageFieldLayoutCache.Layout queryPageFieldViewLayout(Long organizationId, Long projectId, PageFieldViewParamVO paramDTO);
+
+    /**
+     * 从缓存的布局复制出本次请求的字段列表，并重新生成默认为当前时间的默认值
+     *
+     * @param layout
+     * @return
+     */
+    List<PageFieldViewVO> buildPageFieldViews(PageFieldLayoutCache.Layout layout);
+
     /**
      * 界面上获取字段列表，带有字段选项
      *
@@ -4,6 +4,7 @@ import io.choerodon.issue.api.vo.IssueTypeVO;
 import io.choerodon.issue.api.vo.IssueTypeWithStateMachineIdVO;
 import io.choerodon.issue.api.vo.ProjectConfigDetailVO;
 import io.choerodon.issue.api.vo.StatusVO;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.ProjectConfigDTO;
 import io.choerodon.issue.api.vo.payload.TransformVO;
 
@@ -138,4 +139,13 @@ public interface ProjectConfigService {
     Long queryWorkFlowFirstStatus(Long projectId, String applyType, Long issueTypeId, Long organizationId);
 
     Map<Long, Map<Long, List<TransformVO>>> queryTransformsMapByProjectId(Long projectId, String applyType);
+
+    /**
+     * 查询项目的工作流快照（问题类型id -> 状态id -> 转换列表）及其ETag，发布变更前直接从内存返回
+     *
+     * @param projectId
+     * @param applyType
+     * @return
+     */
+    WorkflowSnapshotCache.Snapshot queryWorkflowSnapshot(Long projectId, String applyType);
 }
@@ -45,4 +45,13 @@ public interface StateMachineConfigService {
      * @return
      */
     List<StateMachineConfigVO> queryDeployByTransformIds(Long organizationId, String type, List<Long> transformIds);
+
+    /**
+     * 获取状态机所有已发布的配置列表
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @return
+     */
+    List<StateMachineConfigVO> queryDeployByStateMachineId(Long organizationId, Long stateMachineId);
 }
@@ -0,0 +1,52 @@
+package io.choerodon.issue.app.service;
+
+import io.choerodon.issue.api.vo.StateMachineSchemeDeployProgressVO;
+import io.choerodon.issue.api.vo.payload.ChangeStatus;
+import io.choerodon.issue.api.vo.payload.StateMachineSchemeChangeItem;
+
+import java.util.List;
+
+/**
+ * 状态机方案的分批发布：按项目分批发送saga，每批完成后再发送下一批，
+ * 进度记录在状态机方案中，中断后从未发送的批次继续
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public interface StateMachineSchemeDeployService {
+
+    /**
+     * 开始发布：构建发布数据并分批，提交后发送第一批
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param changeItems
+     * @param changeStatus
+     */
+    void startDeploy(Long organizationId, Long schemeId, List<StateMachineSchemeChangeItem> changeItems, ChangeStatus changeStatus);
+
+    /**
+     * 更新当前批次的发布进度，当前批次完成时发送下一批，所有批次完成时更新发布状态为done
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param deployProgress 当前批次的进度
+     * @return
+     */
+    Boolean updateDeployProgress(Long organizationId, Long schemeId, Integer deployProgress);
+
+    /**
+     * 查询发布进度
+     *
+     * @param organizationId
+     * @param schemeId
+     * @return
+     */
+    StateMachineSchemeDeployProgressVO queryDeployProgress(Long organizationId, Long schemeId);
+
+    /**
+     * 继续发送中断的发布：已发送的批次都已完成但下一批未发送成功；
+     * 已发送的批次超时未完成时重发该批次，重发次数用完后标记发布失败
+     */
+    void resumeInterruptedDeploys();
+}
@@ -3,6 +3,7 @@ package io.choerodon.issue.app.service;
 import com.github.pagehelper.PageInfo;
 
 import io.choerodon.base.domain.PageRequest;
+import io.choerodon.issue.api.vo.StateMachineSchemeDeployProgressVO;
 import io.choerodon.issue.api.vo.StateMachineSchemeVO;
 import io.choerodon.issue.api.vo.payload.ProjectEvent;
 
@@ -109,4 +110,13 @@ public interface StateMachineSchemeService {
      * @return Boolean
      */
     Boolean updateDeployProgress(Long organizationId, Long schemeId, Integer deployProgress);
+
+    /**
+     * 查询发布进度
+     *
+     * @param organizationId organizationId
+     * @param schemeId       schemeId
+     * @return StateMachineSchemeDeployProgressVO
+     */
+    StateMachineSchemeDeployProgressVO queryDeployProgress(Long organizationId, Long schemeId);
 }
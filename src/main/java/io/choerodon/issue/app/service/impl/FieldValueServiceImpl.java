@@ -16,15 +16,23 @@ import io.choerodon.issue.infra.enums.ObjectSchemeFieldContext;
 import io.choerodon.issue.infra.enums.PageCode;
 import io.choerodon.issue.infra.feign.vo.UserVO;
 import io.choerodon.issue.infra.mapper.FieldValueMapper;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import io.choerodon.issue.infra.utils.FieldValueUtil;
 import io.choerodon.issue.infra.utils.PageUtil;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import com.alibaba.fastjson.JSONObject;
+import com.google.common.collect.Lists;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,6 +43,7 @@ import java.util.stream.Collectors;
 @Service
 @Transactional(rollbackFor = Exception.class)
 public class FieldValueServiceImpl implements FieldValueService {
+    private static final Logger logger = LoggerFactory.getLogger(FieldValueServiceImpl.class);
     private static final String ERROR_PAGECODE_ILLEGAL = "error.pageCode.illegal";
     private static final String ERROR_CONTEXT_ILLEGAL = "error.context.illegal";
     private static final String ERROR_SCHEMECODE_ILLEGAL = "error.schemeCode.illegal";
@@ -48,13 +57,15 @@ public class FieldValueServiceImpl implements FieldValueService {
     private PageFieldService pageFieldService;
     @Autowired
     private ObjectSchemeFieldService objectSchemeFieldService;
-    @Autowired
-    private ModelMapper modelMapper;
+    /**
+     * 导出时每次查询字段值的实例数量
+     */
+    @Value("${choerodon.field-value.export-chunk-size:1000}")
+    private int exportChunkSize;
 
     @Override
     public void fillValues(Long organizationId, Long projectId, Long instanceId, String schemeCode, List<PageFieldViewVO> pageFieldViews) {
-        List<FieldValueVO> values = modelMapper.map(fieldValueMapper.queryList(projectId, instanceId, schemeCode, null), new TypeToken<List<FieldValueVO>>() {
-        }.getType());
+        List<FieldValueVO> values = ConvertUtils.convertFieldValuesToVOS(fieldValueMapper.queryList(projectId, instanceId, schemeCode, null));
         Map<Long, UserVO> userMap = FieldValueUtil.handleUserMap(values.stream().filter(x -> x.getFieldType().equals(FieldType.MEMBER)).map(FieldValueVO::getOptionId).collect(Collectors.toList()));
         Map<Long, List<FieldValueVO>> valueGroup = values.stream().collect(Collectors.groupingBy(FieldValueVO::getFieldId));
         pageFieldViews.forEach(view -> {
@@ -110,8 +121,7 @@ public class FieldValueServiceImpl implements FieldValueService {
         }
         //处理字段日志
         FieldValueUtil.handleDataLog(organizationId, projectId, instanceId, fieldId, updateDTO.getFieldType(), schemeCode, oldFieldValues, newFieldValues);
-        return modelMapper.map(fieldValueMapper.queryList(projectId, instanceId, schemeCode, fieldId), new TypeToken<List<FieldValueVO>>() {
-        }.getType());
+        return ConvertUtils.convertFieldValuesToVOS(fieldValueMapper.queryList(projectId, instanceId, schemeCode, fieldId));
     }
 
     @Override
@@ -163,10 +173,7 @@ public class FieldValueServiceImpl implements FieldValueService {
     @Override
     public Map<String, String> queryFieldValueMapWithInstanceId(Long organizationId, Long projectId, Long instanceId) {
         Map<String, String> result = new HashMap<>();
-        List<FieldValueVO> values = modelMapper.map(fieldValueMapper
-                        .queryList(projectId, instanceId, null, null),
-                new TypeToken<List<FieldValueVO>>() {
-                }.getType());
+        List<FieldValueVO> values = ConvertUtils.convertFieldValuesToVOS(fieldValueMapper.queryList(projectId, instanceId, null, null));
         Map<Long, UserVO> userMap = FieldValueUtil.handleUserMap(values.stream().filter(x -> x.getFieldType().equals(FieldType.MEMBER)).map(FieldValueVO::getOptionId).collect(Collectors.toList()));
         Map<Long, List<FieldValueVO>> valueGroup = values.stream().collect(Collectors.groupingBy(FieldValueVO::getFieldId));
 
@@ -180,6 +187,149 @@ public class FieldValueServiceImpl implements FieldValueService {
         return result;
     }
 
+    @Override
+    public Map<Long, Map<String, String>> queryFieldValueMapWithInstanceIds(Long organizationId, Long projectId, List<Long> instanceIds) {
+        Map<Long, Map<String, String>> result = new LinkedHashMap<>(instanceIds.size());
+        instanceIds.forEach(instanceId -> result.put(instanceId, new HashMap<>()));
+        if (instanceIds.isEmpty()) {
+            return result;
+        }
+        //字段与用户在各批次间复用，已查询过的不再重复查询
+        Map<Long, ObjectSchemeFieldDTO> fieldMap = new HashMap<>();
+        Set<Long> queriedFieldIds = new HashSet<>();
+        Map<Long, UserVO> userMap = new HashMap<>();
+        Set<Long> queriedUserIds = new HashSet<>();
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(result.keySet()), exportChunkSize)) {
+            List<FieldValueVO> values = ConvertUtils.convertFieldValuesToVOS(fieldValueMapper.queryListByInstanceIds(projectId, chunk));
+            List<Long> userIds = values.stream().filter(x -> FieldType.MEMBER.equals(x.getFieldType()))
+                    .map(FieldValueVO::getOptionId).filter(queriedUserIds::add).collect(Collectors.toList());
+            if (!userIds.isEmpty()) {
+                userMap.putAll(FieldValueUtil.handleUserMap(userIds));
+            }
+            List<Long> fieldIds = values.stream().map(FieldValueVO::getFieldId).filter(queriedFieldIds::add).collect(Collectors.toList());
+            fieldMap.putAll(objectSchemeFieldService.baseQueryByIds(organizationId, projectId, fieldIds));
+            assembleFieldValues(projectId, values, fieldMap, userMap, result);
+        }
+        return result;
+    }
+
+    /**
+     * 字段值按实例id、字段id排序，逐段组装到实例的字段值中
+     */
+    private void assembleFieldValues(Long projectId, List<FieldValueVO> values, Map<Long, ObjectSchemeFieldDTO> fieldMap,
+                                     Map<Long, UserVO> userMap, Map<Long, Map<String, String>> result) {
+        int start = 0;
+        while (start < values.size()) {
+            FieldValueVO first = values.get(start);
+            int end = start + 1;
+            while (end < values.size() && first.getInstanceId().equals(values.get(end).getInstanceId())
+                    && first.getFieldId().equals(values.get(end).getFieldId())) {
+                end++;
+            }
+            ObjectSchemeFieldDTO objectSchemeField = fieldMap.get(first.getFieldId());
+            if (objectSchemeField == null) {
+                //字段已被删除，只跳过该实例的这个字段
+                logger.warn("field not found when query field value, projectId:{}, instanceId:{}, fieldId:{}", projectId, first.getInstanceId(), first.getFieldId());
+            } else {
+                PageFieldViewVO view = new PageFieldViewVO();
+                FieldValueUtil.handleDTO2Value(view, objectSchemeField.getFieldType(), values.subList(start, end), userMap, true);
+                result.get(first.getInstanceId()).put(objectSchemeField.getCode(), view.getValueStr().toString());
+            }
+            start = end;
+        }
+    }
+
+    @Override
+    public void exportFieldValueMapWithInstanceIds(Long organizationId, Long projectId, List<Long> instanceIds, OutputStream outputStream) throws IOException {
+        Map<Long, UserVO> userMap = FieldValueUtil.handleUserMap(fieldValueMapper.queryOptionIdsByProjectIdAndFieldType(projectId, FieldType.MEMBER));
+        Map<Long, ObjectSchemeFieldDTO> fieldMap = objectSchemeFieldService.baseQueryByIds(organizationId, projectId, fieldValueMapper.queryFieldIdsByProjectId(projectId));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(new LinkedHashSet<>(instanceIds)), exportChunkSize)) {
+            FieldValueExportHandler handler = new FieldValueExportHandler(writer, fieldMap, userMap);
+            fieldValueMapper.streamListByInstanceIds(projectId, chunk, handler);
+            handler.finish();
+            //没有字段值的实例也写出空的键值对，与批量查询的结果保持一致
+            for (Long instanceId : chunk) {
+                if (!handler.exported.contains(instanceId)) {
+                    writeLine(writer, instanceId, Collections.emptyMap());
+                }
+            }
+            writer.flush();
+        }
+    }
+
+    private static void writeLine(Writer writer, Long instanceId, Map<String, String> values) throws IOException {
+        JSONObject line = new JSONObject(true);
+        line.put("instanceId", instanceId);
+        line.put("values", values);
+        writer.write(line.toJSONString());
+        writer.write('\n');
+    }
+
+    /**
+     * 按实例id、字段id顺序逐行组装字段值，一个实例读取完成后立即写出
+     */
+    private class FieldValueExportHandler implements ResultHandler<FieldValueDTO> {
+        private final Writer writer;
+        private final Map<Long, ObjectSchemeFieldDTO> fieldMap;
+        private final Map<Long, UserVO> userMap;
+        private final Set<Long> exported = new HashSet<>();
+        private Long instanceId;
+        private Long fieldId;
+        private List<FieldValueVO> fieldValues = new ArrayList<>();
+        private Map<String, String> values = new HashMap<>();
+
+        private FieldValueExportHandler(Writer writer, Map<Long, ObjectSchemeFieldDTO> fieldMap, Map<Long, UserVO> userMap) {
+            this.writer = writer;
+            this.fieldMap = fieldMap;
+            this.userMap = userMap;
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends FieldValueDTO> resultContext) {
+            FieldValueDTO fieldValue = resultContext.getResultObject();
+            if (!fieldValue.getInstanceId().equals(instanceId)) {
+                finish();
+                instanceId = fieldValue.getInstanceId();
+            } else if (!fieldValue.getFieldId().equals(fieldId)) {
+                finishField();
+            }
+            fieldId = fieldValue.getFieldId();
+            fieldValues.add(ConvertUtils.convertFieldValueToVO(fieldValue));
+        }
+
+        private void finishField() {
+            if (fieldValues.isEmpty()) {
+                return;
+            }
+            ObjectSchemeFieldDTO objectSchemeField = fieldMap.get(fieldId);
+            if (objectSchemeField == null) {
+                //字段已被删除，只跳过该实例的这个字段
+                logger.warn("field not found when export field value, instanceId:{}, fieldId:{}", instanceId, fieldId);
+            } else {
+                PageFieldViewVO view = new PageFieldViewVO();
+                FieldValueUtil.handleDTO2Value(view, objectSchemeField.getFieldType(), fieldValues, userMap, true);
+                values.put(objectSchemeField.getCode(), view.getValueStr().toString());
+            }
+            fieldValues = new ArrayList<>();
+        }
+
+        private void finish() {
+            if (instanceId == null) {
+                return;
+            }
+            finishField();
+            try {
+                writeLine(writer, instanceId, values);
+            } catch (IOException e) {
+                throw new CommonException("error.fieldValue.export", e);
+            }
+            exported.add(instanceId);
+            values = new HashMap<>();
+            instanceId = null;
+        }
+    }
+
     @Override
     public List<Long> sortIssueIdsByFieldValue(Long organizationId, Long projectId, PageRequest pageRequest) {
         if (pageRequest.getSort() != null) {
@@ -11,6 +11,7 @@ import io.choerodon.issue.api.vo.payload.ProjectEvent;
 import io.choerodon.issue.api.vo.payload.StatusPayload;
 import io.choerodon.issue.app.service.InitService;
 import io.choerodon.issue.app.service.StateMachineService;
+import io.choerodon.issue.infra.cache.StateMachineStatusCache;
 import io.choerodon.issue.infra.dto.StateMachineDTO;
 import io.choerodon.issue.infra.dto.StateMachineNodeDraftDTO;
 import io.choerodon.issue.infra.dto.StateMachineTransformDraftDTO;
@@ -53,6 +54,8 @@ public class InitServiceImpl implements InitService {
     @Autowired
     private SagaClient sagaClient;
     @Autowired
+    private StateMachineStatusCache stateMachineStatusCache;
+    @Autowired
     private ModelMapper modelMapper;
 
     public void setSagaClient(SagaClient sagaClient) {
@@ -233,6 +236,7 @@ public class InitServiceImpl implements InitService {
                 }
             }
         }
+        stateMachineStatusCache.cleanOrganization(organizationId);
     }
 
     private void handleNode(Long organizationId, Long stateMachineId, String applyType, Map<String, StateMachineNodeDraftDTO> nodeMap, Map<String, StatusDTO> statusMap) {
@@ -1,7 +1,9 @@
 package io.choerodon.issue.app.service.impl;
 
 import io.choerodon.core.exception.CommonException;
+import io.choerodon.issue.api.vo.ExecuteConfigBatchVO;
 import io.choerodon.issue.api.vo.ExecuteResult;
+import io.choerodon.issue.api.vo.ExecuteTransformVO;
 import io.choerodon.issue.api.vo.InputVO;
 import io.choerodon.issue.api.vo.StateMachineConfigVO;
 import io.choerodon.issue.api.vo.StateMachineTransformVO;
@@ -15,25 +17,36 @@ import io.choerodon.issue.infra.dto.StateMachineTransformDTO;
 import io.choerodon.issue.infra.enums.ConfigType;
 import io.choerodon.issue.infra.enums.NodeType;
 import io.choerodon.issue.infra.factory.MachineFactory;
+import io.choerodon.issue.infra.feign.CallbackConcurrencyLimiter;
 import io.choerodon.issue.infra.feign.CustomFeignClientAdaptor;
 import io.choerodon.issue.infra.mapper.StateMachineMapper;
 import io.choerodon.issue.infra.mapper.StateMachineNodeMapper;
-import io.choerodon.issue.infra.mapper.StateMachineTransformMapper;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.statemachine.StateContext;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
+ * 调用对应服务执行条件、验证、后置动作的方法不开启事务，远程调用期间不占用数据库连接，
+ * 需要读取的发布数据在调用前通过只读的短事务获取
+ *
  * @author shinan.chen
  * @date 2018/9/18
  */
@@ -46,6 +59,8 @@ public class InstanceServiceImpl implements InstanceService {
     private static final String HTTP = "http://";
     private static final String URI = "uri:{}";
     private static final String AND_TARGET_STATUS_ID = "&target_status_id=";
+    private static final String CONFIG_ALL = "config_all";
+    private static final String CONFIG_BATCH = "config_batch";
     @Autowired
     private StateMachineNodeMapper nodeDeployMapper;
     @Autowired
@@ -53,17 +68,30 @@ public class InstanceServiceImpl implements InstanceService {
     @Autowired
     private StateMachineTransformService transformService;
     @Autowired
-    private StateMachineTransformMapper transformMapper;
-    @Autowired
     private MachineFactory machineFactory;
     @Autowired
     private CustomFeignClientAdaptor customFeignClientAdaptor;
     @Autowired
+    private CallbackConcurrencyLimiter callbackConcurrencyLimiter;
+    @Autowired
     private StateMachineMapper stateMachineMapper;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExecuteResult startInstance(Long organizationId, String serviceCode, Long stateMachineId, InputVO inputVO) {
         StateMachineDTO stateMachine = stateMachineMapper.queryById(organizationId, stateMachineId);
         if (stateMachine == null) {
@@ -93,22 +121,30 @@ public class InstanceServiceImpl implements InstanceService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExecuteResult executeTransform(Long organizationId, String serviceCode, Long stateMachineId, Long currentStatusId, Long transformId, InputVO inputVO) {
         return machineFactory.executeTransform(organizationId, serviceCode, stateMachineId, currentStatusId, transformId, inputVO);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransformInfo> queryListTransform(Long organizationId, String serviceCode, Long stateMachineId, Long instanceId, Long statusId) {
         Boolean isNeedFilter = false;
-        List<StateMachineTransformDTO> stateMachineTransforms = transformService.queryListByStatusIdByDeploy(organizationId, stateMachineId, statusId);
-        //获取节点信息
-        List<StateMachineNodeDTO> nodes = nodeDeployMapper.selectByStateMachineId(stateMachineId);
-        List<StateMachineConfigVO> configs = configService.queryDeployByTransformIds(organizationId, ConfigType.CONDITION, stateMachineTransforms.stream().map(StateMachineTransformDTO::getId).collect(Collectors.toList()));
+        List<StateMachineTransformDTO> stateMachineTransforms = new ArrayList<>();
+        List<StateMachineNodeDTO> nodes = new ArrayList<>();
+        List<StateMachineConfigVO> configs = new ArrayList<>();
+        readOnlyTemplate.execute(status -> {
+            stateMachineTransforms.addAll(transformService.queryListByStatusIdByDeploy(organizationId, stateMachineId, statusId));
+            //获取节点信息
+            nodes.addAll(nodeDeployMapper.selectByStateMachineId(stateMachineId));
+            configs.addAll(configService.queryDeployByTransformIds(organizationId, ConfigType.CONDITION, stateMachineTransforms.stream().map(StateMachineTransformDTO::getId).collect(Collectors.toList())));
+            return null;
+        });
         Map<Long, Long> nodeMap = nodes.stream().collect(Collectors.toMap(StateMachineNodeDTO::getId, StateMachineNodeDTO::getStatusId));
         Map<Long, List<StateMachineConfigVO>> configMaps = configs.stream().collect(Collectors.groupingBy(StateMachineConfigVO::getTransformId));
         List<TransformInfo> transformInfos = new ArrayList<>(stateMachineTransforms.size());
         for (StateMachineTransformDTO transform : stateMachineTransforms) {
-            TransformInfo transformInfo = modelMapper.map(transform, TransformInfo.class);
+            TransformInfo transformInfo = ConvertUtils.convertTransformToInfo(transform);
             transformInfo.setStartStatusId(nodeMap.get(transform.getStartNodeId()));
             transformInfo.setEndStatusId(nodeMap.get(transform.getEndNodeId()));
             //获取转换的条件配置
@@ -124,7 +160,8 @@ public class InstanceServiceImpl implements InstanceService {
         //调用对应服务，根据条件校验转换，过滤掉不可用的转换
         if (isNeedFilter) {
             try {
-                ResponseEntity<List<TransformInfo>> listEntity = customFeignClientAdaptor.filterTransformsByConfig(getFilterTransformURI(serviceCode, instanceId), transformInfos);
+                List<TransformInfo> filterTransformInfos = transformInfos;
+                ResponseEntity<List<TransformInfo>> listEntity = recordRemoteCall(serviceCode, "filter_transform", () -> customFeignClientAdaptor.filterTransformsByConfig(getFilterTransformURI(serviceCode, instanceId), filterTransformInfos));
                 transformInfos = listEntity.getBody();
             } catch (Exception e) {
                 LOGGER.error(EXCEPTION, e);
@@ -135,45 +172,46 @@ public class InstanceServiceImpl implements InstanceService {
     }
 
     @Override
-    public Boolean validatorGuard(Long organizationId, String serviceCode, Long transformId, InputVO inputVO, StateContext<String, String> context) {
-        StateMachineTransformDTO transform = transformMapper.queryById(organizationId, transformId);
-        List<StateMachineConfigVO> conditionConfigs = condition(organizationId, transformId);
-        List<StateMachineConfigVO> validatorConfigs = validator(organizationId, transformId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ExecuteResult> executeTransforms(Long organizationId, String serviceCode, List<ExecuteTransformVO> executeTransformVOS) {
+        if (executeTransformVOS == null || executeTransformVOS.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return machineFactory.executeTransforms(organizationId, serviceCode, executeTransformVOS);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExecuteResult validatorGuard(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> conditionConfigs, List<StateMachineConfigVO> validatorConfigs, InputVO inputVO) {
         ExecuteResult executeResult = new ExecuteResult(true, null, null);
         //调用对应服务，执行条件和验证，返回是否成功
         try {
             if (!conditionConfigs.isEmpty()) {
                 inputVO.setConfigs(conditionConfigs);
-                executeResult = customFeignClientAdaptor.executeConfig(getExecuteConfigConditionURI(serviceCode, null, transform.getConditionStrategy()), inputVO).getBody();
+                executeResult = recordRemoteCall(serviceCode, ConfigType.CONDITION, () -> customFeignClientAdaptor.executeConfig(getExecuteConfigConditionURI(serviceCode, null, transform.getConditionStrategy()), inputVO)).getBody();
             }
             if (executeResult.getSuccess() && !validatorConfigs.isEmpty()) {
                 inputVO.setConfigs(validatorConfigs);
-                executeResult = customFeignClientAdaptor.executeConfig(getExecuteConfigValidatorURI(serviceCode, null), inputVO).getBody();
+                executeResult = recordRemoteCall(serviceCode, ConfigType.VALIDATOR, () -> customFeignClientAdaptor.executeConfig(getExecuteConfigValidatorURI(serviceCode, null), inputVO)).getBody();
             }
         } catch (Exception e) {
             LOGGER.error(EXCEPTION, e);
             executeResult = new ExecuteResult(false, null, "验证调用失败");
         }
-
-        Map<Object, Object> variables = context.getExtendedState().getVariables();
-        variables.put("executeResult", executeResult);
-        return executeResult.getSuccess();
+        return executeResult;
     }
 
     @Override
-    public Boolean postAction(Long organizationId, String serviceCode, Long transformId, InputVO inputVO, StateContext<String, String> context) {
-        List<StateMachineConfigVO> configs = action(organizationId, transformId);
-        inputVO.setConfigs(configs);
-        StateMachineTransformDTO transform = transformMapper.queryById(organizationId, transformId);
-        //节点转状态
-        Long targetStatusId = nodeDeployMapper.getNodeDeployById(Long.parseLong(context.getTarget().getId())).getStatusId();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExecuteResult postAction(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> actionConfigs, Long targetStatusId, InputVO inputVO) {
+        inputVO.setConfigs(actionConfigs);
         if (targetStatusId == null) {
             throw new CommonException("error.postAction.targetStatusId.notNull");
         }
         ExecuteResult executeResult;
         //调用对应服务，执行动作，返回是否成功
         try {
-            ResponseEntity<ExecuteResult> executeResultEntity = customFeignClientAdaptor.executeConfig(getExecuteConfigPostActionURI(serviceCode, targetStatusId, transform.getType()), inputVO);
+            ResponseEntity<ExecuteResult> executeResultEntity = recordRemoteCall(serviceCode, ConfigType.ACTION, () -> customFeignClientAdaptor.executeConfig(getExecuteConfigPostActionURI(serviceCode, targetStatusId, transform.getType()), inputVO));
             //返回为空则调用对应服务，对应服务方法报错
             if (executeResultEntity.getBody().getSuccess() != null) {
                 executeResult = executeResultEntity.getBody();
@@ -184,9 +222,60 @@ public class InstanceServiceImpl implements InstanceService {
             LOGGER.error(EXCEPTION, e);
             executeResult = new ExecuteResult(false, null, "后置动作调用失败");
         }
-        Map<Object, Object> variables = context.getExtendedState().getVariables();
-        variables.put("executeResult", executeResult);
-        return executeResult.getSuccess();
+        return executeResult;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExecuteResult executeAllConfigs(String serviceCode, StateMachineTransformDTO transform, List<StateMachineConfigVO> conditionConfigs, List<StateMachineConfigVO> validatorConfigs, List<StateMachineConfigVO> actionConfigs, Long targetStatusId, InputVO inputVO) {
+        if (targetStatusId == null) {
+            throw new CommonException("error.postAction.targetStatusId.notNull");
+        }
+        //配置的type区分条件、验证与后置动作
+        List<StateMachineConfigVO> configs = new ArrayList<>(conditionConfigs.size() + validatorConfigs.size() + actionConfigs.size());
+        configs.addAll(conditionConfigs);
+        configs.addAll(validatorConfigs);
+        configs.addAll(actionConfigs);
+        inputVO.setConfigs(configs);
+        ExecuteResult executeResult;
+        //调用对应服务，执行条件、验证与后置动作，返回是否成功
+        try {
+            ResponseEntity<ExecuteResult> executeResultEntity = recordRemoteCall(serviceCode, CONFIG_ALL, () -> customFeignClientAdaptor.executeConfig(getExecuteConfigAllURI(serviceCode, targetStatusId, transform.getConditionStrategy(), transform.getType()), inputVO));
+            if (executeResultEntity.getBody().getSuccess() != null) {
+                executeResult = executeResultEntity.getBody();
+            } else {
+                executeResult = new ExecuteResult(false, null, "执行配置调用失败");
+            }
+        } catch (Exception e) {
+            LOGGER.error(EXCEPTION, e);
+            executeResult = new ExecuteResult(false, null, "执行配置调用失败");
+        }
+        return executeResult;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ExecuteResult> executeConfigBatch(String serviceCode, List<ExecuteConfigBatchVO> executeConfigBatchVOS) {
+        for (ExecuteConfigBatchVO executeConfigBatchVO : executeConfigBatchVOS) {
+            if (executeConfigBatchVO.getTargetStatusId() == null) {
+                throw new CommonException("error.postAction.targetStatusId.notNull");
+            }
+        }
+        //调用对应服务，批量执行条件、验证与后置动作，按请求顺序返回每个实例的结果
+        try {
+            ResponseEntity<List<ExecuteResult>> executeResultEntity = recordRemoteCall(serviceCode, CONFIG_BATCH, () -> customFeignClientAdaptor.executeConfigBatch(getExecuteConfigBatchURI(serviceCode), executeConfigBatchVOS));
+            List<ExecuteResult> executeResults = executeResultEntity.getBody();
+            if (executeResults != null && executeResults.size() == executeConfigBatchVOS.size()
+                    && executeResults.stream().allMatch(x -> x != null && x.getSuccess() != null)) {
+                return executeResults;
+            }
+            LOGGER.error("execute config batch return illegal results,serviceCode:{},size:{}", serviceCode, executeConfigBatchVOS.size());
+        } catch (Exception e) {
+            LOGGER.error(EXCEPTION, e);
+        }
+        List<ExecuteResult> failResults = new ArrayList<>(executeConfigBatchVOS.size());
+        executeConfigBatchVOS.forEach(x -> failResults.add(new ExecuteResult(false, null, "批量执行配置调用失败")));
+        return failResults;
     }
 
     @Override
@@ -223,6 +312,28 @@ public class InstanceServiceImpl implements InstanceService {
         }
     }
 
+    /**
+     * 在服务的并发上限内调用对应服务，记录耗时，并标记调用时是否处于事务中（占用数据库连接）
+     *
+     * @param serviceCode
+     * @param type
+     * @param call
+     * @return
+     */
+    private <T> T recordRemoteCall(String serviceCode, String type, Supplier<T> call) {
+        if (meterRegistry == null) {
+            return callbackConcurrencyLimiter.execute(serviceCode, call);
+        }
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        long start = System.nanoTime();
+        try {
+            return callbackConcurrencyLimiter.execute(serviceCode, call);
+        } finally {
+            meterRegistry.timer("statemachine.remote.call", "service", serviceCode, "type", type, "in_transaction", String.valueOf(inTransaction))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * 获取过滤转换的URI
      *
@@ -322,6 +433,56 @@ public class InstanceServiceImpl implements InstanceService {
         return uri;
     }
 
+    /**
+     * 获取一次执行条件、验证与后置动作的URI
+     *
+     * @param serviceCode
+     * @param targetStatusId
+     * @param conditionStrategy
+     * @param transformType
+     * @return
+     */
+    private URI getExecuteConfigAllURI(String serviceCode, Long targetStatusId, String conditionStrategy, String transformType) {
+        URI uri = null;
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(HTTP).append(serviceCode).append("/v1").append("/statemachine/execute_config_all").append("?1=1");
+        if (targetStatusId != null) {
+            stringBuilder.append(AND_TARGET_STATUS_ID).append(targetStatusId);
+        }
+        if (conditionStrategy != null) {
+            stringBuilder.append("&condition_strategy=").append(conditionStrategy);
+        }
+        if (transformType != null) {
+            stringBuilder.append("&transform_type=").append(transformType);
+        }
+        String uriStr = stringBuilder.toString();
+        LOGGER.debug(URI, uriStr);
+        try {
+            uri = new URI(uriStr);
+        } catch (URISyntaxException e) {
+            LOGGER.error(EXCEPTION, e);
+        }
+        return uri;
+    }
+
+    /**
+     * 获取批量执行条件、验证与后置动作的URI
+     *
+     * @param serviceCode
+     * @return
+     */
+    private URI getExecuteConfigBatchURI(String serviceCode) {
+        URI uri = null;
+        String uriStr = HTTP + serviceCode + "/v1" + "/statemachine/execute_config_batch";
+        LOGGER.debug(URI, uriStr);
+        try {
+            uri = new URI(uriStr);
+        } catch (URISyntaxException e) {
+            LOGGER.error(EXCEPTION, e);
+        }
+        return uri;
+    }
+
     /**
      * 创建实例时，获取状态机的初始转换
      *
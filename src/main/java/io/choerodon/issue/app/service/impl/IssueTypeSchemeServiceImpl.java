@@ -12,6 +12,7 @@ import io.choerodon.issue.app.service.IssueTypeSchemeService;
 import io.choerodon.issue.app.service.IssueTypeService;
 import io.choerodon.issue.app.service.PriorityService;
 import io.choerodon.issue.app.service.ProjectConfigService;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.*;
 import io.choerodon.issue.infra.enums.InitIssueType;
 import io.choerodon.issue.infra.enums.SchemeApplyType;
@@ -47,6 +48,8 @@ public class IssueTypeSchemeServiceImpl implements IssueTypeSchemeService {
     @Autowired
     private IssueTypeSchemeConfigMapper issueTypeSchemeConfigMapper;
     @Autowired
+    private WorkflowSnapshotCache workflowSnapshotCache;
+    @Autowired
     private IssueTypeMapper issueTypeMapper;
     @Autowired
     private ProjectConfigMapper projectConfigMapper;
@@ -118,6 +121,7 @@ public class IssueTypeSchemeServiceImpl implements IssueTypeSchemeService {
 
         issueTypeSchemeConfigMapper.deleteBySchemeId(organizationId, issueTypeSchemeVO.getId());
         createConfig(organizationId, issueTypeScheme.getId(), issueTypeSchemeVO.getIssueTypes());
+        workflowSnapshotCache.cleanOrganization(organizationId);
 
         return queryById(organizationId, issueTypeScheme.getId());
     }
@@ -149,6 +153,7 @@ public class IssueTypeSchemeServiceImpl implements IssueTypeSchemeService {
                 throw new CommonException("error.issueType.delete");
             }
             issueTypeSchemeConfigMapper.deleteBySchemeId(organizationId, issueTypeSchemeId);
+            workflowSnapshotCache.cleanOrganization(organizationId);
             //关联删除一些东西【toDo】
         } else {
             return false;
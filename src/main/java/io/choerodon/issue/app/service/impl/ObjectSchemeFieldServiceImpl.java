@@ -3,12 +3,15 @@ package io.choerodon.issue.app.service.impl;
 import io.choerodon.core.exception.CommonException;
 import io.choerodon.issue.api.vo.*;
 import io.choerodon.issue.app.service.*;
+import io.choerodon.issue.infra.cache.PageFieldLayoutCache;
 import io.choerodon.issue.infra.dto.LookupTypeWithValuesDTO;
 import io.choerodon.issue.infra.dto.LookupValueDTO;
 import io.choerodon.issue.infra.dto.ObjectSchemeDTO;
+import io.choerodon.issue.infra.dto.ObjectSchemeFieldContextDTO;
 import io.choerodon.issue.infra.dto.ObjectSchemeFieldDTO;
 import io.choerodon.issue.infra.enums.*;
 import io.choerodon.issue.infra.mapper.LookupValueMapper;
+import io.choerodon.issue.infra.mapper.ObjectSchemeFieldContextMapper;
 import io.choerodon.issue.infra.mapper.ObjectSchemeFieldMapper;
 import io.choerodon.issue.infra.mapper.ObjectSchemeMapper;
 import io.choerodon.issue.infra.utils.EnumUtil;
@@ -18,6 +21,8 @@ import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -45,6 +50,8 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
     @Autowired
     private ObjectSchemeMapper objectSchemeMapper;
     @Autowired
+    private ObjectSchemeFieldContextMapper objectSchemeFieldContextMapper;
+    @Autowired
     private FieldOptionService fieldOptionService;
     @Autowired
     private PageFieldService pageFieldService;
@@ -56,6 +63,8 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
     private FieldDataLogService fieldDataLogService;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private PageFieldLayoutCache pageFieldLayoutCache;
 
     @Override
     public ObjectSchemeFieldDTO baseCreate(ObjectSchemeFieldDTO field) {
@@ -87,13 +96,28 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
         if (field == null) {
             throw new CommonException(ERROR_FIELD_NOTFOUND);
         }
+        checkFieldScope(organizationId, projectId, field);
+        return field;
+    }
+
+    @Override
+    public Map<Long, ObjectSchemeFieldDTO> baseQueryByIds(Long organizationId, Long projectId, List<Long> fieldIds) {
+        if (fieldIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, ObjectSchemeFieldDTO> fieldMap = objectSchemeFieldMapper.queryByIds(fieldIds).stream().collect(Collectors.toMap(ObjectSchemeFieldDTO::getId, x -> x));
+        //已删除的字段不在结果中，由调用方按实例跳过
+        fieldMap.values().forEach(field -> checkFieldScope(organizationId, projectId, field));
+        return fieldMap;
+    }
+
+    private void checkFieldScope(Long organizationId, Long projectId, ObjectSchemeFieldDTO field) {
         if (!field.getOrganizationId().equals(organizationId) && !field.getOrganizationId().equals(0L)) {
             throw new CommonException(ERROR_FIELD_ILLEGAL);
         }
         if (field.getProjectId() != null && !field.getProjectId().equals(projectId) && !field.getProjectId().equals(0L)) {
             throw new CommonException(ERROR_FIELD_ILLEGAL);
         }
-        return field;
     }
 
     @Override
@@ -164,6 +188,7 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
         field.setOrganizationId(organizationId);
         field.setProjectId(projectId);
         baseCreate(field);
+        saveContexts(field.getId(), field.getContext());
         //创建pageField
         if (projectId != null) {
             pageFieldService.createByFieldWithPro(organizationId, projectId, field);
@@ -212,12 +237,14 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
             throw new CommonException(ERROR_FIELD_ILLEGAL);
         }
         baseDelete(fieldId);
+        objectSchemeFieldContextMapper.deleteByFieldId(fieldId);
         //删除pageFields
         pageFieldService.deleteByFieldId(fieldId);
         //删除字段值
         fieldValueService.deleteByFieldId(fieldId);
         //删除日志
         fieldDataLogService.deleteByFieldId(projectId, fieldId);
+        pageFieldLayoutCache.cleanOrganization(organizationId);
     }
 
     @Override
@@ -246,6 +273,16 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
         }
         update.setId(fieldId);
         baseUpdate(update);
+        if (update.getContext() != null) {
+            objectSchemeFieldContextMapper.deleteByFieldId(fieldId);
+            saveContexts(fieldId, update.getContext());
+        }
+        //字段、选项或默认值变化后页面字段布局失效，系统字段为所有组织共用
+        if (Boolean.TRUE.equals(field.getSystem())) {
+            pageFieldLayoutCache.cleanAll();
+        } else {
+            pageFieldLayoutCache.cleanOrganization(organizationId);
+        }
         return queryById(organizationId, projectId, fieldId);
     }
 
@@ -291,4 +328,45 @@ public class ObjectSchemeFieldServiceImpl implements ObjectSchemeFieldService {
         });
         return agileIssueHeadDTOS;
     }
+
+    @Override
+    public void syncContexts() {
+        List<ObjectSchemeFieldDTO> fields = objectSchemeFieldContextMapper.queryFieldsWithoutContext();
+        for (ObjectSchemeFieldDTO field : fields) {
+            saveContexts(field.getId(), field.getContext());
+        }
+        //系统字段为所有组织共用，其organizationId为0，需要清除所有组织的布局
+        if (fields.stream().anyMatch(field -> Boolean.TRUE.equals(field.getSystem()))) {
+            pageFieldLayoutCache.cleanAll();
+        } else {
+            fields.stream().map(ObjectSchemeFieldDTO::getOrganizationId).distinct().forEach(pageFieldLayoutCache::cleanOrganization);
+        }
+        //拆分的上下文提交后才切换到按object_scheme_field_context过滤
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    pageFieldService.markContextSynced();
+                }
+            });
+        } else {
+            pageFieldService.markContextSynced();
+        }
+    }
+
+    /**
+     * 将逗号分隔的上下文拆分保存，用于按上下文过滤字段
+     *
+     * @param fieldId
+     * @param context
+     */
+    private void saveContexts(Long fieldId, String context) {
+        List<ObjectSchemeFieldContextDTO> contexts = Arrays.stream(context.split(","))
+                .filter(x -> !x.isEmpty()).distinct()
+                .map(x -> new ObjectSchemeFieldContextDTO(fieldId, x))
+                .collect(Collectors.toList());
+        if (!contexts.isEmpty()) {
+            objectSchemeFieldContextMapper.batchInsert(contexts);
+        }
+    }
 }
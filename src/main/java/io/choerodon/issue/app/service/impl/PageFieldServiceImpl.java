@@ -1,21 +1,25 @@
 package io.choerodon.issue.app.service.impl;
 
 import io.choerodon.core.exception.CommonException;
+import io.choerodon.core.oauth.CustomUserDetails;
+import io.choerodon.core.oauth.DetailsHelper;
 import io.choerodon.issue.api.vo.*;
 import io.choerodon.issue.app.service.FieldOptionService;
 import io.choerodon.issue.app.service.FieldValueService;
 import io.choerodon.issue.app.service.PageFieldService;
 import io.choerodon.issue.infra.annotation.CopyPageField;
+import io.choerodon.issue.infra.cache.PageFieldLayoutCache;
 import io.choerodon.issue.infra.dto.*;
 import io.choerodon.issue.infra.enums.*;
 import io.choerodon.issue.infra.mapper.*;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import io.choerodon.issue.infra.utils.FieldValueUtil;
 import io.choerodon.issue.infra.utils.RankUtil;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,6 +59,22 @@ public class PageFieldServiceImpl implements PageFieldService {
     private LookupValueMapper lookupValueMapper;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private PageFieldLayoutCache pageFieldLayoutCache;
+    /**
+     * rank超过该长度时由定时任务重新分配页面下的rank
+     */
+    @Value("${choerodon.page-field.rank.max-length:16}")
+    private int rankMaxLength;
+    /**
+     * 字段上下文拆分完成前按object_scheme_field.context匹配上下文，避免启动后尚未同步的字段被过滤掉
+     */
+    private volatile boolean contextSynced;
+
+    @Override
+    public void markContextSynced() {
+        contextSynced = true;
+    }
 
     @Override
     public PageFieldDTO baseCreate(PageFieldDTO field) {
@@ -137,17 +157,17 @@ public class PageFieldServiceImpl implements PageFieldService {
     public List<PageFieldDTO> queryPageField(Long organizationId, Long projectId, String pageCode, String context) {
         List<PageFieldDTO> pageFields;
         if (projectId != null && projectPageFieldMapper.queryOne(organizationId, projectId) != null) {
-            pageFields = pageFieldMapper.listQuery(organizationId, projectId, pageCode, context);
+            pageFields = pageFieldMapper.listQuery(organizationId, projectId, pageCode, context, contextSynced);
         } else {
-            pageFields = pageFieldMapper.listQuery(organizationId, null, pageCode, context);
+            pageFields = pageFieldMapper.listQuery(organizationId, null, pageCode, context, contextSynced);
         }
         //若没有数据则初始化【修复旧数据】
         if (pageFields.isEmpty()) {
             initPageFieldByOrg(organizationId);
             if (projectId != null && projectPageFieldMapper.queryOne(organizationId, projectId) != null) {
-                pageFields = pageFieldMapper.listQuery(organizationId, projectId, pageCode, context);
+                pageFields = pageFieldMapper.listQuery(organizationId, projectId, pageCode, context, contextSynced);
             } else {
-                pageFields = pageFieldMapper.listQuery(organizationId, null, pageCode, context);
+                pageFields = pageFieldMapper.listQuery(organizationId, null, pageCode, context, contextSynced);
             }
         }
         return FieldCode.pageFieldsFilter(organizationId, projectId, pageFields);
@@ -175,6 +195,7 @@ public class PageFieldServiceImpl implements PageFieldService {
             }
         }
         baseUpdate(update);
+        pageFieldLayoutCache.cleanOrganization(organizationId);
         return modelMapper.map(pageFieldMapper.queryByFieldId(organizationId, projectId, pageCode, current.getFieldId()), PageFieldVO.class);
     }
 
@@ -188,12 +209,13 @@ public class PageFieldServiceImpl implements PageFieldService {
         PageFieldDTO update = modelMapper.map(updateDTO, PageFieldDTO.class);
         update.setId(field.getId());
         baseUpdate(update);
+        pageFieldLayoutCache.cleanOrganization(organizationId);
         return modelMapper.map(pageFieldMapper.queryByFieldId(organizationId, projectId, pageCode, fieldId), PageFieldVO.class);
     }
 
     @Override
     public synchronized void initPageFieldByOrg(Long organizationId) {
-        if (pageFieldMapper.listQuery(organizationId, null, null, null).isEmpty()) {
+        if (pageFieldMapper.listQuery(organizationId, null, null, null, contextSynced).isEmpty()) {
             //查询page
             List<PageDTO> pages = pageMapper.fulltextSearch(organizationId, new PageSearchVO());
             Map<String, Long> pageMap = pages.stream().collect(Collectors.toMap(PageDTO::getPageCode, PageDTO::getId));
@@ -201,6 +223,7 @@ public class PageFieldServiceImpl implements PageFieldService {
             List<ObjectSchemeFieldDTO> fields = objectSchemeFieldMapper.listQuery(organizationId, null, new ObjectSchemeFieldSearchVO());
             Map<String, Map<String, Long>> schemeCodeFieldMap = fields.stream().collect(Collectors.groupingBy(ObjectSchemeFieldDTO::getSchemeCode, Collectors.toMap(ObjectSchemeFieldDTO::getCode, ObjectSchemeFieldDTO::getId)));
             handleInitPageFieldE(organizationId, schemeCodeFieldMap, pageMap);
+            pageFieldLayoutCache.cleanOrganization(organizationId);
         }
     }
 
@@ -209,7 +232,9 @@ public class PageFieldServiceImpl implements PageFieldService {
         Arrays.asList(clzes).forEach(cls -> {
             List<InitPageFieldVO> initPageFields = modelMapper.map(Arrays.asList(cls.getEnumConstants()), new TypeToken<List<InitPageFieldVO>>() {
             }.getType());
-            String rank = RankUtil.mid();
+            //按顺序从大到小分配均匀分布的rank
+            List<String> ranks = RankUtil.spread(initPageFields.size());
+            int rankIndex = ranks.size();
             for (InitPageFieldVO pageField : initPageFields) {
                 Map<String, Long> fieldMap = schemeCodeFieldMap.get(pageField.getSchemeCode());
                 if (fieldMap == null) {
@@ -226,12 +251,11 @@ public class PageFieldServiceImpl implements PageFieldService {
                 }
                 pageField.setPageId(pageId);
                 //设置rank
-                pageField.setRank(rank);
-                rank = RankUtil.genPre(rank);
+                pageField.setRank(ranks.get(--rankIndex));
             }
             List<PageFieldDTO> pageFields = modelMapper.map(initPageFields, new TypeToken<List<PageFieldDTO>>() {
             }.getType());
-            pageFieldMapper.batchInsert(organizationId, null, pageFields);
+            pageFieldMapper.batchInsert(organizationId, null, pageFields, currentUserId());
         });
     }
 
@@ -242,23 +266,11 @@ public class PageFieldServiceImpl implements PageFieldService {
         PageSearchVO searchDTO = new PageSearchVO();
         searchDTO.setSchemeCode(field.getSchemeCode());
         List<PageDTO> pages = pageMapper.fulltextSearch(organizationId, searchDTO);
-        pages.forEach(page -> {
-            //创建pageField
-            PageFieldDTO pageField = new PageFieldDTO();
-            pageField.setProjectId(projectId);
-            pageField.setOrganizationId(organizationId);
-            pageField.setDisplay(false);
-            pageField.setFieldId(field.getId());
-            pageField.setPageId(page.getId());
-            String minRank = pageFieldMapper.queryMinRank(organizationId, projectId, page.getPageCode());
-            //若没有数据则初始化【修复旧数据】
-            if (minRank == null) {
-                initPageFieldByOrg(organizationId);
-                minRank = pageFieldMapper.queryMinRank(organizationId, projectId, page.getPageCode());
-            }
-            pageField.setRank(RankUtil.genPre(minRank));
-            baseCreate(pageField);
-        });
+        List<PageFieldDTO> pageFields = buildPageFieldsBeforeMinRank(organizationId, projectId, pages, field);
+        if (!pageFields.isEmpty()) {
+            pageFieldMapper.batchInsert(organizationId, projectId, pageFields, currentUserId());
+            pageFieldLayoutCache.cleanOrganization(organizationId);
+        }
     }
 
     @Override
@@ -269,28 +281,82 @@ public class PageFieldServiceImpl implements PageFieldService {
         PageSearchVO searchDTO = new PageSearchVO();
         searchDTO.setSchemeCode(field.getSchemeCode());
         List<PageDTO> pages = pageMapper.fulltextSearch(organizationId, searchDTO);
-        pages.forEach(page -> {
+        List<PageFieldDTO> pageFields = buildPageFieldsBeforeMinRank(organizationId, null, pages, field);
+        if (!pageFields.isEmpty()) {
+            Long userId = currentUserId();
             //组织层创建pageField
+            pageFieldMapper.batchInsert(organizationId, null, pageFields, userId);
+            //项目层创建pageField，rank与组织层相同
+            projectPageFields.forEach(projectPageField -> pageFieldMapper.batchInsert(organizationId, projectPageField.getProjectId(), pageFields, userId));
+            pageFieldLayoutCache.cleanOrganization(organizationId);
+        }
+    }
+
+    /**
+     * 为每个页面构建排在最后的页面字段，所有页面的最小rank通过一次查询获取
+     *
+     * @param organizationId
+     * @param projectId
+     * @param pages
+     * @param field
+     * @return
+     */
+    private List<PageFieldDTO> buildPageFieldsBeforeMinRank(Long organizationId, Long projectId, List<PageDTO> pages, ObjectSchemeFieldDTO field) {
+        if (pages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> pageIds = pages.stream().map(PageDTO::getId).collect(Collectors.toList());
+        Map<Long, String> minRankMap = queryMinRankMap(organizationId, projectId, pageIds);
+        //若有页面没有数据则初始化【修复旧数据】
+        if (minRankMap.size() < pageIds.size()) {
+            initPageFieldByOrg(organizationId);
+            minRankMap = queryMinRankMap(organizationId, projectId, pageIds);
+        }
+        List<PageFieldDTO> pageFields = new ArrayList<>(pages.size());
+        for (PageDTO page : pages) {
             PageFieldDTO pageField = new PageFieldDTO();
-            pageField.setOrganizationId(organizationId);
             pageField.setDisplay(false);
             pageField.setFieldId(field.getId());
             pageField.setPageId(page.getId());
-            String minRank = pageFieldMapper.queryMinRank(organizationId, null, page.getPageCode());
-            //若没有数据则初始化【修复旧数据】
-            if (minRank == null) {
-                initPageFieldByOrg(organizationId);
-                minRank = pageFieldMapper.queryMinRank(organizationId, null, page.getPageCode());
-            }
-            pageField.setRank(RankUtil.genPre(minRank));
-            baseCreate(pageField);
-            //项目层创建pageField
-            projectPageFields.forEach(projectPageField -> {
-                pageField.setId(null);
-                pageField.setProjectId(projectPageField.getProjectId());
-                baseCreate(pageField);
-            });
-        });
+            String minRank = minRankMap.get(page.getId());
+            pageField.setRank(minRank == null ? RankUtil.mid() : RankUtil.genPre(minRank));
+            pageFields.add(pageField);
+        }
+        return pageFields;
+    }
+
+    private Map<Long, String> queryMinRankMap(Long organizationId, Long projectId, List<Long> pageIds) {
+        return pageFieldMapper.queryMinRankByPageIds(organizationId, projectId, pageIds).stream()
+                .collect(Collectors.toMap(PageFieldDTO::getPageId, PageFieldDTO::getRank));
+    }
+
+    @Override
+    public List<PageFieldDTO> queryLongRankPages() {
+        return pageFieldMapper.queryLongRankPages(rankMaxLength);
+    }
+
+    /**
+     * 当前操作人id，无登录用户（如saga消费）时为0
+     */
+    private Long currentUserId() {
+        CustomUserDetails userDetails = DetailsHelper.getUserDetails();
+        return userDetails != null && userDetails.getUserId() != null ? userDetails.getUserId() : 0L;
+    }
+
+    @Override
+    public void rebalanceRank(Long organizationId, Long projectId, Long pageId) {
+        List<PageFieldDTO> pageFields = pageFieldMapper.queryRankByPageIdForUpdate(organizationId, projectId, pageId);
+        if (pageFields.isEmpty()) {
+            return;
+        }
+        //保持原有顺序（rank从大到小），重新分配均匀分布的rank
+        List<String> ranks = RankUtil.spread(pageFields.size());
+        int rankIndex = ranks.size();
+        for (PageFieldDTO pageField : pageFields) {
+            pageField.setRank(ranks.get(--rankIndex));
+        }
+        pageFieldMapper.batchUpdateRank(pageFields);
+        pageFieldLayoutCache.cleanOrganization(organizationId);
     }
 
     @Override
@@ -299,7 +365,7 @@ public class PageFieldServiceImpl implements PageFieldService {
     }
 
     @Override
-    public List<PageFieldViewVO> queryPageFieldViewList(Long organizationId, Long projectId, PageFieldViewParamVO paramDTO) {
+    public PageFieldLayoutCache.Layout queryPageFieldViewLayout(Long organizationId, Long projectId, PageFieldViewParamVO paramDTO) {
         if (!EnumUtil.contain(PageCode.class, paramDTO.getPageCode())) {
             throw new CommonException(ERROR_PAGECODE_ILLEGAL);
         }
@@ -309,18 +375,42 @@ public class PageFieldServiceImpl implements PageFieldService {
         if (!EnumUtil.contain(ObjectSchemeFieldContext.class, paramDTO.getContext())) {
             throw new CommonException(ERROR_CONTEXT_ILLEGAL);
         }
-        List<PageFieldDTO> pageFields = queryPageField(organizationId, projectId, paramDTO.getPageCode(), paramDTO.getContext());
-        //modelMapper设置严格匹配策略
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        pageFields = pageFields.stream().filter(PageFieldDTO::getDisplay).collect(Collectors.toList());
-        List<PageFieldViewVO> pageFieldViews = modelMapper.map(pageFields, new TypeToken<List<PageFieldViewVO>>() {
-        }.getType());
-        //填充option
-        optionService.fillOptions(organizationId, projectId, pageFieldViews);
-        FieldValueUtil.handleDefaultValue(pageFieldViews);
+        return pageFieldLayoutCache.getLayout(organizationId, projectId, paramDTO.getPageCode(), paramDTO.getContext(), () -> {
+            List<PageFieldDTO> pageFields = queryPageField(organizationId, projectId, paramDTO.getPageCode(), paramDTO.getContext());
+            pageFields = pageFields.stream().filter(PageFieldDTO::getDisplay).collect(Collectors.toList());
+            List<PageFieldViewVO> pageFieldViews = ConvertUtils.convertPageFieldsToViewVOS(pageFields);
+            //填充option
+            optionService.fillOptions(organizationId, projectId, pageFieldViews);
+            FieldValueUtil.handleDefaultValue(pageFieldViews);
+            pageFieldViews.forEach(view -> {
+                if (view.getFieldOptions() != null) {
+                    view.setFieldOptions(Collections.unmodifiableList(view.getFieldOptions()));
+                }
+            });
+            return pageFieldViews;
+        });
+    }
+
+    @Override
+    public List<PageFieldViewVO> buildPageFieldViews(PageFieldLayoutCache.Layout layout) {
+        List<PageFieldViewVO> pageFieldViews = new ArrayList<>(layout.getPageFieldViews().size());
+        for (PageFieldViewVO cached : layout.getPageFieldViews()) {
+            PageFieldViewVO view = ConvertUtils.copyPageFieldView(cached);
+            //默认当前时间的字段每次请求重新生成
+            if (PageFieldLayoutCache.isDefaultNow(view)) {
+                view.setDefaultValue(new Date());
+            }
+            pageFieldViews.add(view);
+        }
+        FieldValueUtil.handleDefaultValueUser(pageFieldViews);
         return pageFieldViews;
     }
 
+    @Override
+    public List<PageFieldViewVO> queryPageFieldViewList(Long organizationId, Long projectId, PageFieldViewParamVO paramDTO) {
+        return buildPageFieldViews(queryPageFieldViewLayout(organizationId, projectId, paramDTO));
+    }
+
     @Override
     public List<PageFieldViewVO> queryPageFieldViewListWithInstanceId(Long organizationId, Long projectId, Long instanceId, PageFieldViewParamVO paramDTO) {
         List<PageFieldViewVO> pageFieldViews = queryPageFieldViewList(organizationId, projectId, paramDTO);
@@ -331,9 +421,6 @@ public class PageFieldServiceImpl implements PageFieldService {
 
     @Override
     public Map<Long, Map<String, String>> queryFieldValueWithIssueIdsForAgileExport(Long organizationId, Long projectId, List<Long> instanceIds) {
-        Map<Long, Map<String, String>> result = new HashMap<>();
-        instanceIds.forEach(instanceId -> result.put(instanceId, fieldValueService
-                .queryFieldValueMapWithInstanceId(organizationId, projectId, instanceId)));
-        return result;
+        return fieldValueService.queryFieldValueMapWithInstanceIds(organizationId, projectId, instanceIds);
     }
 }
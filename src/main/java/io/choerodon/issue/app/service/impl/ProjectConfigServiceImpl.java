@@ -12,6 +12,7 @@ import io.choerodon.issue.api.vo.payload.StatusPayload;
 import io.choerodon.issue.api.vo.payload.TransformInfo;
 import io.choerodon.issue.api.vo.payload.TransformVO;
 import io.choerodon.issue.app.service.*;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.IssueTypeDTO;
 import io.choerodon.issue.infra.dto.ProjectConfigDTO;
 import io.choerodon.issue.infra.enums.SchemeApplyType;
@@ -21,6 +22,7 @@ import io.choerodon.issue.infra.mapper.IssueTypeMapper;
 import io.choerodon.issue.infra.mapper.IssueTypeSchemeConfigMapper;
 import io.choerodon.issue.infra.mapper.IssueTypeSchemeMapper;
 import io.choerodon.issue.infra.mapper.ProjectConfigMapper;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import io.choerodon.issue.infra.utils.ProjectUtil;
 import io.choerodon.issue.statemachine.fegin.InstanceFeignClient;
@@ -71,6 +73,8 @@ public class ProjectConfigServiceImpl implements ProjectConfigService {
     @Autowired
     private ProjectUtil projectUtil;
     @Autowired
+    private WorkflowSnapshotCache workflowSnapshotCache;
+    @Autowired
     private ProjectConfigService projectConfigService;
     @Autowired
     private InstanceFeignClient instanceFeignClient;
@@ -103,6 +107,7 @@ public class ProjectConfigServiceImpl implements ProjectConfigService {
         if (result != 1) {
             throw new CommonException("error.projectConfig.create");
         }
+        workflowSnapshotCache.cleanProject(projectId);
 
         //若是关联状态机方案，设置状态机方案、状态机为活跃
         if (schemeType.equals(SchemeType.STATE_MACHINE)) {
@@ -230,8 +235,7 @@ public class ProjectConfigServiceImpl implements ProjectConfigService {
             Long stateMachineId = stateMachineSchemeConfigService.queryStateMachineIdBySchemeIdAndIssueTypeId(false, organizationId, projectConfig.getSchemeId(), issueTypeId);
             //获取当前状态拥有的转换
             List<TransformInfo> transformInfos = instanceService.queryListTransform(organizationId, AGILE_SERVICE, stateMachineId, issueId, currentStatusId);
-            List<TransformVO> transformVOS = modelMapper.map(transformInfos, new TypeToken<List<TransformVO>>() {
-            }.getType());
+            List<TransformVO> transformVOS = ConvertUtils.convertTransformInfosToVOS(transformInfos);
             //获取组织中所有状态
             List<StatusVO> statusVOS = statusService.queryAllStatus(organizationId);
             Map<Long, StatusVO> statusMap = statusVOS.stream().collect(Collectors.toMap(StatusVO::getId, x -> x));
@@ -254,11 +258,20 @@ public class ProjectConfigServiceImpl implements ProjectConfigService {
 
     @Override
     public Map<Long, Map<Long, List<TransformVO>>> queryTransformsMapByProjectId(Long projectId, String applyType) {
+        return queryWorkflowSnapshot(projectId, applyType).getTransformsMap();
+    }
+
+    @Override
+    public WorkflowSnapshotCache.Snapshot queryWorkflowSnapshot(Long projectId, String applyType) {
         if (!EnumUtil.contain(SchemeApplyType.class, applyType)) {
             throw new CommonException(ERROR_APPLYTYPE_ILLEGAL);
         }
-        //获取状态机方案
         Long organizationId = projectUtil.getOrganizationId(projectId);
+        return workflowSnapshotCache.getSnapshot(organizationId, projectId, applyType, () -> buildTransformsMap(organizationId, projectId, applyType));
+    }
+
+    private Map<Long, Map<Long, List<TransformVO>>> buildTransformsMap(Long organizationId, Long projectId, String applyType) {
+        //获取状态机方案
         ProjectConfigDTO smProjectConfig = projectConfigMapper.queryBySchemeTypeAndApplyType(projectId, SchemeType.STATE_MACHINE, applyType);
         if (smProjectConfig.getSchemeId() == null) {
             throw new CommonException("error.queryTransformsMapByProjectId.stateMachineSchemeId.null");
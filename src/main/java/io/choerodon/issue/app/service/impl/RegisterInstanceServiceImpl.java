@@ -4,28 +4,39 @@ import io.choerodon.eureka.event.EurekaEventPayload;
 import io.choerodon.issue.api.vo.PropertyData;
 import io.choerodon.issue.app.service.ConfigCodeService;
 import io.choerodon.issue.app.service.RegisterInstanceService;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.remoting.RemoteAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
 import java.util.Arrays;
 
 @Service
 public class RegisterInstanceServiceImpl implements RegisterInstanceService {
 
     private static final Logger logger = LoggerFactory.getLogger(RegisterInstanceServiceImpl.class);
-    private RestTemplate restTemplate = new RestTemplate();
+    private RestTemplate restTemplate;
 
     @Autowired
     private ConfigCodeService configCodeService;
+    @Autowired
+    private CloseableHttpClient httpClient;
     @Value("${choerodon.eureka.event.target-services}")
     private String[] targetServices;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
     @Override
     public void instanceDownConsumer(final EurekaEventPayload payload) {
         logger.info("服务下线：{}", payload.getAppName());
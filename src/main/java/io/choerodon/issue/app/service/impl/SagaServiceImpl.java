@@ -5,6 +5,7 @@ import io.choerodon.asgard.saga.annotation.Saga;
 import io.choerodon.asgard.saga.dto.StartInstanceDTO;
 import io.choerodon.asgard.saga.feign.SagaClient;
 import io.choerodon.core.iam.ResourceLevel;
+import io.choerodon.core.oauth.CustomUserDetails;
 import io.choerodon.core.oauth.DetailsHelper;
 import io.choerodon.issue.api.vo.StatusVO;
 import io.choerodon.issue.api.vo.payload.*;
@@ -50,8 +51,16 @@ public class SagaServiceImpl {
         this.sagaClient = sagaClient;
     }
 
-    @Saga(code = DEPLOY_STATE_MACHINE_SCHEME, description = "issue服务发布状态机方案", inputSchemaClass = StateMachineSchemeDeployUpdateIssue.class)
-    public void deployStateMachineScheme(Long organizationId, Long schemeId, List<StateMachineSchemeChangeItem> changeItems, ChangeStatus changeStatus) {
+    /**
+     * 构建发布状态机方案要发送的完整数据，包含方案关联的所有项目
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param changeItems
+     * @param changeStatus
+     * @return
+     */
+    public StateMachineSchemeDeployUpdateIssue buildDeployStateMachineScheme(Long organizationId, Long schemeId, List<StateMachineSchemeChangeItem> changeItems, ChangeStatus changeStatus) {
         //获取当前方案配置的项目列表
         List<ProjectConfigDTO> projectConfigs = projectConfigMapper.queryConfigsBySchemeId(SchemeType.STATE_MACHINE, schemeId);
         //获取所有状态
@@ -72,7 +81,7 @@ public class SagaServiceImpl {
             });
             addStatusWithProject.setAddStatuses(statuses);
         });
-        //发送saga，批量更新issue的状态，并对相应的项目进行状态的增加与减少
+        //批量更新issue的状态，并对相应的项目进行状态的增加与减少
         StateMachineSchemeDeployUpdateIssue deployUpdateIssue = new StateMachineSchemeDeployUpdateIssue();
         deployUpdateIssue.setChangeItems(changeItems);
         deployUpdateIssue.setProjectConfigs(projectConfigs);
@@ -80,9 +89,19 @@ public class SagaServiceImpl {
         deployUpdateIssue.setRemoveStatusWithProjects(removeStatusWithProjects);
         deployUpdateIssue.setSchemeId(schemeId);
         deployUpdateIssue.setOrganizationId(organizationId);
-        deployUpdateIssue.setUserId(DetailsHelper.getUserDetails().getUserId());
+        CustomUserDetails userDetails = DetailsHelper.getUserDetails();
+        deployUpdateIssue.setUserId(userDetails.getUserId());
+        deployUpdateIssue.setUserName(userDetails.getUsername());
+        deployUpdateIssue.setLanguage(userDetails.getLanguage());
+        deployUpdateIssue.setTimeZone(userDetails.getTimeZone());
+        return deployUpdateIssue;
+    }
+
+    @Saga(code = DEPLOY_STATE_MACHINE_SCHEME, description = "issue服务发布状态机方案", inputSchemaClass = StateMachineSchemeDeployUpdateIssue.class)
+    public void deployStateMachineScheme(StateMachineSchemeDeployUpdateIssue deployUpdateIssue) {
+        Long organizationId = deployUpdateIssue.getOrganizationId();
         sagaClient.startSaga(DEPLOY_STATE_MACHINE_SCHEME, new StartInstanceDTO(JSON.toJSONString(deployUpdateIssue), "", "", ResourceLevel.ORGANIZATION.value(), organizationId));
-        logger.info("startSaga deploy-state-machine-scheme addStatusIds: {}, deleteStatusIds: {}", changeStatus.getAddStatusIds(), changeStatus.getDeleteStatusIds());
+        logger.info("startSaga deploy-state-machine-scheme schemeId: {}, batch: {}/{}", deployUpdateIssue.getSchemeId(), deployUpdateIssue.getBatch(), deployUpdateIssue.getBatchCount());
     }
 
     @Saga(code = DEPLOY_STATE_MACHINE, description = "发布状态机", inputSchemaClass = DeployStateMachinePayload.class)
@@ -10,6 +10,7 @@ import io.choerodon.issue.infra.dto.StateMachineConfigDraftDTO;
 import io.choerodon.issue.infra.enums.ConfigType;
 import io.choerodon.issue.infra.mapper.StateMachineConfigDraftMapper;
 import io.choerodon.issue.infra.mapper.StateMachineConfigMapper;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
@@ -93,14 +94,17 @@ public class StateMachineConfigServiceImpl implements StateMachineConfigService
             throw new CommonException(ERROR_STATUS_TYPE_ILLEGAL);
         }
         if (transformIds != null && !transformIds.isEmpty()) {
-            List<StateMachineConfigDTO> configs = configDeployMapper.queryWithCodeInfoByTransformIds(organizationId, type, transformIds);
-            return modelMapper.map(configs, new TypeToken<List<StateMachineConfigVO>>() {
-            }.getType());
+            return ConvertUtils.convertConfigsToVOS(configDeployMapper.queryWithCodeInfoByTransformIds(organizationId, type, transformIds));
         } else {
             return Collections.emptyList();
         }
     }
 
+    @Override
+    public List<StateMachineConfigVO> queryDeployByStateMachineId(Long organizationId, Long stateMachineId) {
+        return ConvertUtils.convertConfigsToVOS(configDeployMapper.queryWithCodeInfoByStateMachineId(organizationId, stateMachineId));
+    }
+
     public void checkCode(Long transformId, String type, String code) {
         List<ConfigCodeVO> configCodeVOS = configCodeService.queryByType(type);
         if (configCodeVOS.stream().noneMatch(configCodeDTO -> configCodeDTO.getCode().equals(code))) {
@@ -8,15 +8,16 @@ import io.choerodon.issue.api.vo.payload.StateMachineSchemeDeployCheckIssue;
 import io.choerodon.issue.api.vo.payload.StateMachineSchemeStatusChangeItem;
 import io.choerodon.issue.app.service.IssueTypeService;
 import io.choerodon.issue.app.service.StateMachineSchemeConfigService;
+import io.choerodon.issue.app.service.StateMachineSchemeDeployService;
 import io.choerodon.issue.app.service.StateMachineSchemeService;
 import io.choerodon.issue.app.service.StateMachineService;
 import io.choerodon.issue.infra.annotation.ChangeSchemeStatus;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.ProjectConfigDTO;
 import io.choerodon.issue.infra.dto.StateMachineSchemeConfigDTO;
 import io.choerodon.issue.infra.dto.StateMachineSchemeConfigDraftDTO;
 import io.choerodon.issue.infra.dto.StateMachineSchemeDTO;
 import io.choerodon.issue.infra.enums.SchemeType;
-import io.choerodon.issue.infra.enums.StateMachineSchemeDeployStatus;
 import io.choerodon.issue.infra.enums.StateMachineSchemeStatus;
 import io.choerodon.issue.infra.feign.AgileFeignClient;
 import io.choerodon.issue.infra.mapper.ProjectConfigMapper;
@@ -53,6 +54,8 @@ public class StateMachineSchemeConfigServiceImpl implements StateMachineSchemeCo
     @Autowired
     private StateMachineSchemeMapper schemeMapper;
     @Autowired
+    private WorkflowSnapshotCache workflowSnapshotCache;
+    @Autowired
     private IssueTypeService issueTypeService;
     @Autowired
     private ProjectConfigMapper projectConfigMapper;
@@ -61,7 +64,7 @@ public class StateMachineSchemeConfigServiceImpl implements StateMachineSchemeCo
     @Autowired
     private StateMachineService stateMachineService;
     @Autowired
-    private SagaServiceImpl sagaService;
+    private StateMachineSchemeDeployService deployService;
     @Autowired
     private ModelMapper modelMapper;
 
@@ -317,9 +320,8 @@ public class StateMachineSchemeConfigServiceImpl implements StateMachineSchemeCo
         schemeMapper.updateByPrimaryKeyOptions(scheme, criteria);
         //发布后，再进行状态增加与减少的判断，并发送saga
         ChangeStatus changeStatus = new ChangeStatus(addStatusIds, deleteStatusIds);
-        //发布之前，更新deployStatus为doing
-        schemeMapper.updateDeployStatus(organizationId, schemeId, StateMachineSchemeDeployStatus.DOING);
-        sagaService.deployStateMachineScheme(organizationId, schemeId, changeItems, changeStatus);
+        //更新deployStatus为doing，并按项目分批发送saga
+        deployService.startDeploy(organizationId, schemeId, changeItems, changeStatus);
         //新增的状态机ids和删除的状态机ids
         List<Long> deleteStateMachineIds = changeMap.get("deleteStateMachineIds");
         List<Long> addStateMachineIds = changeMap.get("addStateMachineIds");
@@ -482,5 +484,7 @@ public class StateMachineSchemeConfigServiceImpl implements StateMachineSchemeCo
                 }
             }
         }
+        //发布配置变化，使用该方案的项目的工作流快照失效（包括项目关联方案时激活方案）
+        workflowSnapshotCache.cleanOrganization(organizationId);
     }
 }
@@ -0,0 +1,271 @@
+package io.choerodon.issue.app.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import io.choerodon.core.exception.CommonException;
+import io.choerodon.core.oauth.CustomUserDetails;
+import io.choerodon.issue.api.vo.StateMachineSchemeDeployProgressVO;
+import io.choerodon.issue.api.vo.payload.ChangeStatus;
+import io.choerodon.issue.api.vo.payload.StateMachineSchemeChangeItem;
+import io.choerodon.issue.api.vo.payload.StateMachineSchemeDeployUpdateIssue;
+import io.choerodon.issue.app.service.StateMachineSchemeDeployService;
+import io.choerodon.issue.infra.dto.ProjectConfigDTO;
+import io.choerodon.issue.infra.dto.StateMachineSchemeDTO;
+import io.choerodon.issue.infra.enums.StateMachineSchemeDeployStatus;
+import io.choerodon.issue.infra.mapper.StateMachineSchemeMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent
+ * @since 2026/10/17
+ */
+@Service
+public class StateMachineSchemeDeployServiceImpl implements StateMachineSchemeDeployService {
+    private static final Logger logger = LoggerFactory.getLogger(StateMachineSchemeDeployServiceImpl.class);
+    private static final int PROGRESS_DONE = 100;
+
+    @Autowired
+    private StateMachineSchemeMapper schemeMapper;
+    @Autowired
+    private SagaServiceImpl sagaService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    /**
+     * 每个批次包含的项目数量
+     */
+    @Value("${choerodon.statemachine.scheme-deploy.batch-size:50}")
+    private int batchSize;
+    /**
+     * 批次发送后超过该时间未完成视为超时
+     */
+    @Value("${choerodon.statemachine.scheme-deploy.batch-timeout-millis:1800000}")
+    private long batchTimeoutMillis;
+    /**
+     * 超时批次的最大重发次数，超过后发布标记为失败
+     */
+    @Value("${choerodon.statemachine.scheme-deploy.max-resend:2}")
+    private int maxResend;
+
+    /**
+     * 发送批次使用独立事务，发送saga失败时批次不会被标记为已发送
+     */
+    private TransactionTemplate requiresNewTemplate;
+
+    @PostConstruct
+    public void init() {
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void startDeploy(Long organizationId, Long schemeId, List<StateMachineSchemeChangeItem> changeItems, ChangeStatus changeStatus) {
+        StateMachineSchemeDeployUpdateIssue deployUpdateIssue = sagaService.buildDeployStateMachineScheme(organizationId, schemeId, changeItems, changeStatus);
+        int projectCount = deployUpdateIssue.getProjectConfigs().size();
+        //没有关联项目时也发送一批，保持与agile服务的进度回调一致
+        int batchCount = Math.max(1, (projectCount + batchSize - 1) / batchSize);
+        schemeMapper.startDeploy(organizationId, schemeId, batchCount, JSON.toJSONString(deployUpdateIssue));
+        logger.info("start deploy stateMachineScheme, schemeId:{}, projectCount:{}, batchCount:{}", schemeId, projectCount, batchCount);
+        sendBatchAfterCommit(organizationId, schemeId, 0);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Boolean updateDeployProgress(Long organizationId, Long schemeId, Integer deployProgress) {
+        StateMachineSchemeDTO scheme = schemeMapper.selectByPrimaryKey(schemeId);
+        if (scheme != null && StateMachineSchemeDeployStatus.FAILED.equals(scheme.getDeployStatus())) {
+            //发布已因批次超时标记为失败，迟到的回调不再处理
+            logger.warn("ignore deploy progress of failed stateMachineScheme, schemeId:{}, progress:{}", schemeId, deployProgress);
+            return false;
+        }
+        Integer batchCount = scheme == null ? null : scheme.getDeployBatchCount();
+        if (batchCount == null || batchCount == 0 || !StateMachineSchemeDeployStatus.DOING.equals(scheme.getDeployStatus())) {
+            //没有分批的发布，直接更新进度
+            int update = schemeMapper.updateDeployProgress(organizationId, schemeId, deployProgress);
+            if (update == 1 && deployProgress.equals(PROGRESS_DONE)) {
+                schemeMapper.updateDeployStatus(organizationId, schemeId, StateMachineSchemeDeployStatus.DONE);
+            }
+            return update == 1;
+        }
+        int batchDone = Optional.ofNullable(scheme.getDeployBatchDone()).orElse(0);
+        if (deployProgress < PROGRESS_DONE) {
+            schemeMapper.updateDeployProgress(organizationId, schemeId, (batchDone * PROGRESS_DONE + deployProgress) / batchCount);
+            return true;
+        }
+        //当前批次完成，重复的回调不再处理
+        if (schemeMapper.updateDeployBatchDone(organizationId, schemeId, batchDone, (batchDone + 1) * PROGRESS_DONE / batchCount) != 1) {
+            return true;
+        }
+        if (batchDone + 1 >= batchCount) {
+            schemeMapper.finishDeploy(organizationId, schemeId);
+            logger.info("finish deploy stateMachineScheme, schemeId:{}", schemeId);
+        } else {
+            sendBatchAfterCommit(organizationId, schemeId, batchDone + 1);
+        }
+        return true;
+    }
+
+    @Override
+    public StateMachineSchemeDeployProgressVO queryDeployProgress(Long organizationId, Long schemeId) {
+        StateMachineSchemeDTO scheme = schemeMapper.selectByPrimaryKey(schemeId);
+        if (scheme == null || !organizationId.equals(scheme.getOrganizationId())) {
+            throw new CommonException("error.stateMachineScheme.notFound");
+        }
+        StateMachineSchemeDeployProgressVO progressVO = new StateMachineSchemeDeployProgressVO();
+        progressVO.setSchemeId(schemeId);
+        progressVO.setDeployStatus(scheme.getDeployStatus());
+        progressVO.setDeployProgress(scheme.getDeployProgress());
+        progressVO.setBatchCount(scheme.getDeployBatchCount());
+        progressVO.setBatchDone(scheme.getDeployBatchDone());
+        return progressVO;
+    }
+
+    @Override
+    public void resumeInterruptedDeploys() {
+        for (StateMachineSchemeDTO scheme : schemeMapper.queryInterruptedDeploy()) {
+            logger.info("resume deploy stateMachineScheme, schemeId:{}, batch:{}/{}", scheme.getId(), scheme.getDeployBatchDone(), scheme.getDeployBatchCount());
+            sendBatchSafely(scheme.getOrganizationId(), scheme.getId(), scheme.getDeployBatchDone());
+        }
+        Date sentBefore = new Date(System.currentTimeMillis() - batchTimeoutMillis);
+        for (StateMachineSchemeDTO scheme : schemeMapper.queryTimeoutDeploy(sentBefore)) {
+            resendTimeoutBatch(scheme);
+        }
+    }
+
+    /**
+     * agile服务一直没有确认已发送的批次时重发该批次，重发次数用完后标记发布失败
+     */
+    private void resendTimeoutBatch(StateMachineSchemeDTO scheme) {
+        Long organizationId = scheme.getOrganizationId();
+        Long schemeId = scheme.getId();
+        int batchSent = scheme.getDeployBatchSent();
+        int resend = scheme.getDeployBatchResend() == null ? 0 : scheme.getDeployBatchResend();
+        if (resend >= maxResend) {
+            if (schemeMapper.failDeploy(organizationId, schemeId, batchSent) == 1) {
+                logger.error("deploy stateMachineScheme failed, batch timeout after resend, schemeId:{}, batch:{}/{}, resend:{}",
+                        schemeId, batchSent - 1, scheme.getDeployBatchCount(), resend);
+            }
+            return;
+        }
+        logger.warn("resend timeout deploy stateMachineScheme batch, schemeId:{}, batch:{}/{}, resend:{}",
+                schemeId, batchSent - 1, scheme.getDeployBatchCount(), resend + 1);
+        try {
+            requiresNewTemplate.execute(status -> {
+                //占用重发，已被其他副本重发或批次已完成时跳过
+                if (schemeMapper.updateDeployBatchResend(organizationId, schemeId, batchSent, resend, new Date()) != 1) {
+                    return false;
+                }
+                doSendBatch(organizationId, schemeId, batchSent - 1);
+                return true;
+            });
+        } catch (Exception e) {
+            logger.error("resend deploy stateMachineScheme batch error, schemeId:" + schemeId + ", batch:" + (batchSent - 1), e);
+        }
+    }
+
+    /**
+     * 在事务中调用时提交后再发送，避免agile服务处理批次时方案的发布数据还未提交
+     */
+    private void sendBatchAfterCommit(Long organizationId, Long schemeId, int batch) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    sendBatchSafely(organizationId, schemeId, batch);
+                }
+            });
+        } else {
+            sendBatchSafely(organizationId, schemeId, batch);
+        }
+    }
+
+    /**
+     * 发送失败时只记录日志，由定时任务继续发送
+     */
+    private void sendBatchSafely(Long organizationId, Long schemeId, int batch) {
+        try {
+            requiresNewTemplate.execute(status -> sendBatch(organizationId, schemeId, batch));
+        } catch (Exception e) {
+            logger.error("send deploy stateMachineScheme batch error, schemeId:" + schemeId + ", batch:" + batch, e);
+        }
+    }
+
+    private boolean sendBatch(Long organizationId, Long schemeId, int batch) {
+        //占用批次，已被其他副本或重复调用发送过时跳过
+        if (schemeMapper.updateDeployBatchSent(organizationId, schemeId, batch, new Date()) != 1) {
+            return false;
+        }
+        doSendBatch(organizationId, schemeId, batch);
+        return true;
+    }
+
+    private void doSendBatch(Long organizationId, Long schemeId, int batch) {
+        StateMachineSchemeDTO scheme = schemeMapper.selectByPrimaryKey(schemeId);
+        StateMachineSchemeDeployUpdateIssue deployUpdateIssue = JSON.parseObject(schemeMapper.queryDeployPayload(organizationId, schemeId), StateMachineSchemeDeployUpdateIssue.class);
+        StateMachineSchemeDeployUpdateIssue batchUpdateIssue = sliceBatch(deployUpdateIssue, batch, scheme.getDeployBatchCount());
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            sagaService.deployStateMachineScheme(batchUpdateIssue);
+            return;
+        }
+        //定时任务继续发送时没有用户上下文，以发起发布的用户发送saga
+        SecurityContextHolder.setContext(buildDeployUserContext(organizationId, deployUpdateIssue));
+        try {
+            sagaService.deployStateMachineScheme(batchUpdateIssue);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private SecurityContext buildDeployUserContext(Long organizationId, StateMachineSchemeDeployUpdateIssue deployUpdateIssue) {
+        String userName = Optional.ofNullable(deployUpdateIssue.getUserName()).orElse(String.valueOf(deployUpdateIssue.getUserId()));
+        CustomUserDetails userDetails = new CustomUserDetails(userName, "unknown", Collections.emptyList());
+        userDetails.setUserId(deployUpdateIssue.getUserId());
+        userDetails.setOrganizationId(organizationId);
+        userDetails.setLanguage(deployUpdateIssue.getLanguage());
+        userDetails.setTimeZone(deployUpdateIssue.getTimeZone());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null, Collections.emptyList()));
+        return context;
+    }
+
+    /**
+     * 截取某个批次的项目，以及这些项目要增加与减少的状态
+     */
+    private StateMachineSchemeDeployUpdateIssue sliceBatch(StateMachineSchemeDeployUpdateIssue deployUpdateIssue, int batch, int batchCount) {
+        List<ProjectConfigDTO> projectConfigs = deployUpdateIssue.getProjectConfigs();
+        int size = (projectConfigs.size() + batchCount - 1) / batchCount;
+        int from = Math.min(projectConfigs.size(), batch * size);
+        int to = Math.min(projectConfigs.size(), from + size);
+        List<ProjectConfigDTO> batchProjectConfigs = projectConfigs.subList(from, to);
+        Set<Long> projectIds = batchProjectConfigs.stream().map(ProjectConfigDTO::getProjectId).collect(Collectors.toSet());
+        deployUpdateIssue.setProjectConfigs(batchProjectConfigs);
+        //没有增加或减少的状态时发布数据中没有对应的列表
+        deployUpdateIssue.setAddStatusWithProjects(Optional.ofNullable(deployUpdateIssue.getAddStatusWithProjects()).orElse(Collections.emptyList()).stream()
+                .filter(x -> projectIds.contains(x.getProjectId())).collect(Collectors.toList()));
+        deployUpdateIssue.setRemoveStatusWithProjects(Optional.ofNullable(deployUpdateIssue.getRemoveStatusWithProjects()).orElse(Collections.emptyList()).stream()
+                .filter(x -> projectIds.contains(x.getProjectId())).collect(Collectors.toList()));
+        deployUpdateIssue.setBatch(batch);
+        deployUpdateIssue.setBatchCount(batchCount);
+        return deployUpdateIssue;
+    }
+}
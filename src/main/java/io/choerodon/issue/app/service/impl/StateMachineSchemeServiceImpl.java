@@ -11,7 +11,6 @@ import io.choerodon.issue.infra.dto.IssueTypeDTO;
 import io.choerodon.issue.infra.dto.StateMachineSchemeDTO;
 import io.choerodon.issue.infra.enums.SchemeApplyType;
 import io.choerodon.issue.infra.enums.SchemeType;
-import io.choerodon.issue.infra.enums.StateMachineSchemeDeployStatus;
 import io.choerodon.issue.infra.enums.StateMachineSchemeStatus;
 import io.choerodon.issue.infra.feign.IamFeignClient;
 import io.choerodon.issue.infra.feign.vo.ProjectDTO;
@@ -58,6 +57,8 @@ public class StateMachineSchemeServiceImpl implements StateMachineSchemeService
     private InitService initService;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private StateMachineSchemeDeployService deployService;
 
     @Override
     public PageInfo<StateMachineSchemeVO> pageQuery(Long organizationId, PageRequest pageRequest, StateMachineSchemeVO schemeVO, String params) {
@@ -345,15 +346,11 @@ public class StateMachineSchemeServiceImpl implements StateMachineSchemeService
 
     @Override
     public Boolean updateDeployProgress(Long organizationId, Long schemeId, Integer deployProgress) {
-        int update = schemeMapper.updateDeployProgress(organizationId, schemeId, deployProgress);
-        if (update == 1) {
-            //若已完成，更新发布状态
-            if (deployProgress.equals(100)) {
-                schemeMapper.updateDeployStatus(organizationId, schemeId, StateMachineSchemeDeployStatus.DONE);
-            }
-            return true;
-        } else {
-            return false;
-        }
+        return deployService.updateDeployProgress(organizationId, schemeId, deployProgress);
+    }
+
+    @Override
+    public StateMachineSchemeDeployProgressVO queryDeployProgress(Long organizationId, Long schemeId) {
+        return deployService.queryDeployProgress(organizationId, schemeId);
     }
 }
@@ -4,6 +4,8 @@ import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import io.choerodon.base.domain.PageRequest;
 import io.choerodon.core.exception.CommonException;
+import io.choerodon.core.oauth.CustomUserDetails;
+import io.choerodon.core.oauth.DetailsHelper;
 import io.choerodon.issue.api.vo.*;
 import io.choerodon.issue.api.vo.payload.AddStatusWithProject;
 import io.choerodon.issue.api.vo.payload.ChangeStatus;
@@ -11,12 +13,15 @@ import io.choerodon.issue.api.vo.payload.DeployStateMachinePayload;
 import io.choerodon.issue.api.vo.payload.RemoveStatusWithProject;
 import io.choerodon.issue.app.service.*;
 import io.choerodon.issue.infra.cache.InstanceCache;
+import io.choerodon.issue.infra.cache.StateMachineStatusCache;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.*;
 import io.choerodon.issue.infra.enums.*;
 import io.choerodon.issue.infra.feign.AgileFeignClient;
 import io.choerodon.issue.infra.mapper.*;
 import io.choerodon.issue.infra.utils.PageUtil;
 import io.choerodon.mybatis.entity.Criteria;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 import org.slf4j.Logger;
@@ -26,6 +31,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.util.Comparator.comparingLong;
@@ -40,6 +46,8 @@ public class StateMachineServiceImpl implements StateMachineService {
 
     private static final Logger logger = LoggerFactory.getLogger(StateMachineServiceImpl.class);
     private static final String ERROR_STATEMACHINENODE_CREATE = "error.stateMachineNode.create";
+    private static final String ERROR_STATEMACHINETRANSFORM_CREATE = "error.stateMachineTransform.create";
+    private static final String ERROR_STATEMACHINECONFIG_CREATE = "error.stateMachineCreate.create";
     private static final String STATUS = "status";
 
     @Value("${spring.application.name:default}")
@@ -77,6 +85,12 @@ public class StateMachineServiceImpl implements StateMachineService {
     @Autowired
     private InstanceCache instanceCache;
     @Autowired
+    private WorkflowSnapshotCache workflowSnapshotCache;
+    @Autowired
+    private StateMachineStatusCache stateMachineStatusCache;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired
     private ModelMapper modelMapper;
 
     @Override
@@ -160,8 +174,9 @@ public class StateMachineServiceImpl implements StateMachineService {
         transform.setOrganizationId(organizationId);
         int isTransformInsert = transformDraftMapper.insert(transform);
         if (isTransformInsert != 1) {
-            throw new CommonException("error.stateMachineTransform.create");
+            throw new CommonException(ERROR_STATEMACHINETRANSFORM_CREATE);
         }
+        stateMachineStatusCache.cleanOrganization(organizationId);
         return queryStateMachineWithConfigById(organizationId, stateMachine.getId(), true);
     }
 
@@ -177,12 +192,24 @@ public class StateMachineServiceImpl implements StateMachineService {
         if (isUpdate != 1) {
             throw new CommonException("error.stateMachine.update");
         }
+        stateMachineStatusCache.cleanOrganization(organizationId);
         stateMachine = stateMachineMapper.queryById(organizationId, stateMachine.getId());
         return modelMapper.map(stateMachine, StateMachineVO.class);
     }
 
     @Override
     public Boolean deploy(Long organizationId, Long stateMachineId, Boolean isStartSaga) {
+        long start = System.nanoTime();
+        try {
+            return doDeploy(organizationId, stateMachineId, isStartSaga);
+        } finally {
+            if (meterRegistry != null) {
+                meterRegistry.timer("statemachine.deploy").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Boolean doDeploy(Long organizationId, Long stateMachineId, Boolean isStartSaga) {
         if (stateMachineId == null) {
             throw new CommonException("error.stateMachineId.null");
         }
@@ -216,6 +243,8 @@ public class StateMachineServiceImpl implements StateMachineService {
 
         //清理内存中的旧状态机构建器与实例
         instanceCache.cleanStateMachine(stateMachineId);
+        workflowSnapshotCache.cleanOrganization(organizationId);
+        stateMachineStatusCache.cleanOrganization(organizationId);
 
         //是否同步状态到其他服务:发saga
         if (isStartSaga && !oldStatus.equals(StateMachineStatus.CREATE)) {
@@ -272,6 +301,7 @@ public class StateMachineServiceImpl implements StateMachineService {
         configDeploy.setStateMachineId(stateMachineId);
         configDeploy.setOrganizationId(organizationId);
         configDeployMapper.delete(configDeploy);
+        stateMachineStatusCache.cleanOrganization(organizationId);
     }
 
     @Override
@@ -435,35 +465,28 @@ public class StateMachineServiceImpl implements StateMachineService {
         configDeploy.setStateMachineId(stateMachineId);
         configDeploy.setOrganizationId(organizationId);
         configDeployMapper.delete(configDeploy);
-        //写入发布的节点
+        //整体复制草稿的节点、转换、配置到发布表，复制的行数需与草稿一致
+        Long userId = currentUserId();
         StateMachineNodeDraftDTO node = new StateMachineNodeDraftDTO();
         node.setStateMachineId(stateMachineId);
         node.setOrganizationId(organizationId);
-        List<StateMachineNodeDraftDTO> nodes = nodeDraftMapper.select(node);
-        if (nodes != null && !nodes.isEmpty()) {
-            List<StateMachineNodeDTO> nodeDeploys = modelMapper.map(nodes, new TypeToken<List<StateMachineNodeDTO>>() {
-            }.getType());
-            nodeDeploys.forEach(n -> nodeDeployMapper.insert(n));
+        int nodeCount = nodeDraftMapper.selectCount(node);
+        if (nodeDeployMapper.copyFromDraft(organizationId, stateMachineId, userId) != nodeCount) {
+            throw new CommonException(ERROR_STATEMACHINENODE_CREATE);
         }
-        //写入发布的转换
         StateMachineTransformDraftDTO transform = new StateMachineTransformDraftDTO();
         transform.setStateMachineId(stateMachineId);
         transform.setOrganizationId(organizationId);
-        List<StateMachineTransformDraftDTO> transforms = transformDraftMapper.select(transform);
-        if (transforms != null && !transforms.isEmpty()) {
-            List<StateMachineTransformDTO> transformDeploys = modelMapper.map(transforms, new TypeToken<List<StateMachineTransformDTO>>() {
-            }.getType());
-            transformDeploys.forEach(t -> transformDeployMapper.insert(t));
+        int transformCount = transformDraftMapper.selectCount(transform);
+        if (transformDeployMapper.copyFromDraft(organizationId, stateMachineId, userId) != transformCount) {
+            throw new CommonException(ERROR_STATEMACHINETRANSFORM_CREATE);
         }
-        //写入发布的配置
         StateMachineConfigDraftDTO config = new StateMachineConfigDraftDTO();
         config.setStateMachineId(stateMachineId);
         config.setOrganizationId(organizationId);
-        List<StateMachineConfigDraftDTO> configs = configDraftMapper.select(config);
-        if (configs != null && !configs.isEmpty()) {
-            List<StateMachineConfigDTO> configDeploys = modelMapper.map(configs, new TypeToken<List<StateMachineConfigDTO>>() {
-            }.getType());
-            configDeploys.forEach(c -> configDeployMapper.insert(c));
+        int configCount = configDraftMapper.selectCount(config);
+        if (configDeployMapper.copyFromDraft(organizationId, stateMachineId, userId) != configCount) {
+            throw new CommonException(ERROR_STATEMACHINECONFIG_CREATE);
         }
     }
 
@@ -633,66 +656,40 @@ public class StateMachineServiceImpl implements StateMachineService {
         config.setStateMachineId(stateMachineId);
         config.setOrganizationId(organizationId);
         configDraftMapper.delete(config);
-        //写入活跃的节点到草稿中，id一致
-        deleteDraftHandleNode(organizationId, stateMachineId);
-
-        //写入活跃的转换到草稿中，id一致
-        deleteDraftHandleTransform(organizationId, stateMachineId);
-
-        //写入活跃的配置到草稿中，id一致
-        deleteDraftHandleConfig(stateMachineId);
-
-        return queryStateMachineWithConfigById(organizationId, stateMachine.getId(), false);
-    }
-
-    private void deleteDraftHandleNode(Long organizationId, Long stateMachineId) {
+        //整体复制活跃的节点、转换、配置到草稿中，id一致，复制的行数需与活跃的一致
+        Long userId = currentUserId();
         StateMachineNodeDTO nodeDeploy = new StateMachineNodeDTO();
         nodeDeploy.setStateMachineId(stateMachineId);
         nodeDeploy.setOrganizationId(organizationId);
-        List<StateMachineNodeDTO> nodeDeploys = nodeDeployMapper.select(nodeDeploy);
-        if (nodeDeploys != null && !nodeDeploys.isEmpty()) {
-            List<StateMachineNodeDraftDTO> nodes = modelMapper.map(nodeDeploys, new TypeToken<List<StateMachineNodeDraftDTO>>() {
-            }.getType());
-            for (StateMachineNodeDraftDTO insertNode : nodes) {
-                int nodeInsert = nodeDraftMapper.insert(insertNode);
-                if (nodeInsert != 1) {
-                    throw new CommonException(ERROR_STATEMACHINENODE_CREATE);
-                }
-            }
+        int nodeCount = nodeDeployMapper.selectCount(nodeDeploy);
+        if (nodeDraftMapper.copyFromDeploy(organizationId, stateMachineId, userId) != nodeCount) {
+            throw new CommonException(ERROR_STATEMACHINENODE_CREATE);
         }
-    }
-
-    private void deleteDraftHandleTransform(Long organizationId, Long stateMachineId) {
         StateMachineTransformDTO transformDeploy = new StateMachineTransformDTO();
         transformDeploy.setStateMachineId(stateMachineId);
         transformDeploy.setOrganizationId(organizationId);
-        List<StateMachineTransformDTO> transformDeploys = transformDeployMapper.select(transformDeploy);
-        if (transformDeploys != null && !transformDeploys.isEmpty()) {
-            List<StateMachineTransformDraftDTO> transformInserts = modelMapper.map(transformDeploys, new TypeToken<List<StateMachineTransformDraftDTO>>() {
-            }.getType());
-            for (StateMachineTransformDraftDTO insertTransform : transformInserts) {
-                int transformInsert = transformDraftMapper.insert(insertTransform);
-                if (transformInsert != 1) {
-                    throw new CommonException("error.stateMachineTransform.create");
-                }
-            }
+        int transformCount = transformDeployMapper.selectCount(transformDeploy);
+        if (transformDraftMapper.copyFromDeploy(organizationId, stateMachineId, userId) != transformCount) {
+            throw new CommonException(ERROR_STATEMACHINETRANSFORM_CREATE);
         }
-    }
-
-    private void deleteDraftHandleConfig(Long stateMachineId) {
         StateMachineConfigDTO configDeploy = new StateMachineConfigDTO();
         configDeploy.setStateMachineId(stateMachineId);
-        List<StateMachineConfigDTO> configDeploys = configDeployMapper.select(configDeploy);
-        if (configDeploys != null && !configDeploys.isEmpty()) {
-            List<StateMachineConfigDraftDTO> configs = modelMapper.map(configDeploys, new TypeToken<List<StateMachineConfigDraftDTO>>() {
-            }.getType());
-            for (StateMachineConfigDraftDTO insertConfig : configs) {
-                int configInsert = configDraftMapper.insert(insertConfig);
-                if (configInsert != 1) {
-                    throw new CommonException("error.stateMachineCreate.create");
-                }
-            }
+        configDeploy.setOrganizationId(organizationId);
+        int configCount = configDeployMapper.selectCount(configDeploy);
+        if (configDraftMapper.copyFromDeploy(organizationId, stateMachineId, userId) != configCount) {
+            throw new CommonException(ERROR_STATEMACHINECONFIG_CREATE);
         }
+        stateMachineStatusCache.cleanOrganization(organizationId);
+
+        return queryStateMachineWithConfigById(organizationId, stateMachine.getId(), false);
+    }
+
+    /**
+     * 当前操作人id，无登录用户（如saga消费）时为0
+     */
+    private Long currentUserId() {
+        CustomUserDetails userDetails = DetailsHelper.getUserDetails();
+        return userDetails != null && userDetails.getUserId() != null ? userDetails.getUserId() : 0L;
     }
 
     @Override
@@ -727,6 +724,7 @@ public class StateMachineServiceImpl implements StateMachineService {
             if (stateMachineUpdate != 1) {
                 throw new CommonException("error.stateMachine.update");
             }
+            stateMachineStatusCache.cleanOrganization(organizationId);
         }
     }
 
@@ -785,13 +783,25 @@ public class StateMachineServiceImpl implements StateMachineService {
                 //清理状态机实例
                 instanceCache.cleanStateMachine(stateMachineId);
             }
+            workflowSnapshotCache.cleanOrganization(organizationId);
+            stateMachineStatusCache.cleanOrganization(organizationId);
         }
         return true;
     }
 
     @Override
     public List<StateMachineWithStatusVO> queryAllWithStatus(Long organizationId) {
-        //查询出所有状态机，新建的查草稿，活跃的查发布
+        return stateMachineStatusCache.getStateMachines(organizationId, () -> loadAllWithStatus(organizationId));
+    }
+
+    /**
+     * 查询组织下所有状态机及其状态列表，新建的取草稿节点，活跃的取发布节点，
+     * 节点按组织一次查出后在内存中按状态机分组
+     *
+     * @param organizationId
+     * @return
+     */
+    private List<StateMachineWithStatusVO> loadAllWithStatus(Long organizationId) {
         StateMachineDTO select = new StateMachineDTO();
         select.setOrganizationId(organizationId);
         List<StateMachineDTO> stateMachines = stateMachineMapper.select(select);
@@ -800,30 +810,26 @@ public class StateMachineServiceImpl implements StateMachineService {
         //查询出所有状态
         List<StatusVO> statusVOS = statusService.queryAllStatus(organizationId);
         Map<Long, StatusVO> statusMap = statusVOS.stream().collect(Collectors.toMap(StatusVO::getId, x -> x));
+        //状态机id -> 非开始节点的状态id列表
+        Map<Long, List<Long>> draftStatusIdMap = new HashMap<>(stateMachines.size());
+        nodeDraftMapper.queryByOrganizationId(organizationId).stream().filter(x -> !NodeType.START.equals(x.getType())).forEach(nodeDraft ->
+                draftStatusIdMap.computeIfAbsent(nodeDraft.getStateMachineId(), k -> new ArrayList<>()).add(nodeDraft.getStatusId()));
+        Map<Long, List<Long>> deployStatusIdMap = new HashMap<>(stateMachines.size());
+        nodeDeployMapper.queryByOrganizationId(organizationId).stream().filter(x -> !NodeType.START.equals(x.getType())).forEach(nodeDeploy ->
+                deployStatusIdMap.computeIfAbsent(nodeDeploy.getStateMachineId(), k -> new ArrayList<>()).add(nodeDeploy.getStatusId()));
         stateMachineWithStatusVOS.forEach(stateMachine -> {
-            List<StatusVO> status = new ArrayList<>();
-            if (stateMachine.getStatus().equals(StateMachineStatus.CREATE)) {
-                List<StateMachineNodeDraftDTO> nodeDrafts = nodeDraftMapper.selectByStateMachineId(stateMachine.getId());
-                nodeDrafts.stream().filter(x -> !x.getType().equals(NodeType.START)).forEach(nodeDraft -> {
-                    StatusVO statusVO = statusMap.get(nodeDraft.getStatusId());
-                    if (statusVO != null) {
-                        status.add(statusVO);
-                    } else {
-                        logger.warn("warn nodeDraftId:{} notFound", nodeDraft.getId());
-                    }
-                });
-            } else {
-                List<StateMachineNodeDTO> nodeDeploys = nodeDeployMapper.selectByStateMachineId(stateMachine.getId());
-                nodeDeploys.stream().filter(x -> !x.getType().equals(NodeType.START)).forEach(nodeDeploy -> {
-                    StatusVO statusVO = statusMap.get(nodeDeploy.getStatusId());
-                    if (statusVO != null) {
-                        status.add(statusVO);
-                    } else {
-                        logger.warn("warn nodeDraftId:{} notFound", nodeDeploy.getId());
-                    }
-                });
-            }
-            stateMachine.setStatusVOS(status);
+            Map<Long, List<Long>> statusIdMap = stateMachine.getStatus().equals(StateMachineStatus.CREATE) ? draftStatusIdMap : deployStatusIdMap;
+            List<Long> statusIds = statusIdMap.getOrDefault(stateMachine.getId(), Collections.emptyList());
+            List<StatusVO> status = new ArrayList<>(statusIds.size());
+            statusIds.forEach(statusId -> {
+                StatusVO statusVO = statusMap.get(statusId);
+                if (statusVO != null) {
+                    status.add(statusVO);
+                } else {
+                    logger.warn("warn stateMachineId:{} statusId:{} notFound", stateMachine.getId(), statusId);
+                }
+            });
+            stateMachine.setStatusVOS(Collections.unmodifiableList(status));
         });
         return stateMachineWithStatusVOS;
     }
@@ -14,10 +14,10 @@ import io.choerodon.issue.infra.enums.ConfigType;
 import io.choerodon.issue.infra.enums.TransformConditionStrategy;
 import io.choerodon.issue.infra.enums.TransformType;
 import io.choerodon.issue.infra.mapper.*;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import io.choerodon.mybatis.entity.Criteria;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -275,8 +275,7 @@ public class StateMachineTransformServiceImpl implements StateMachineTransformSe
         }
         Map<Long, Map<Long, List<TransformVO>>> resultMap = new HashMap<>(stateMachineIds.size());
         List<StateMachineTransformDTO> allTransforms = transformDeployMapper.queryByStateMachineIds(organizationId, stateMachineIds);
-        List<TransformVO> allTransformVOS = modelMapper.map(allTransforms, new TypeToken<List<TransformVO>>() {
-        }.getType());
+        List<TransformVO> allTransformVOS = ConvertUtils.convertTransformsToVOS(allTransforms);
         Map<Long, List<TransformVO>> transformStateMachineIdMap = allTransformVOS.stream().collect(Collectors.groupingBy(TransformVO::getStateMachineId));
         List<StateMachineNodeDTO> allNodes = nodeDeployMapper.queryByStateMachineIds(organizationId, stateMachineIds);
         Map<Long, List<StateMachineNodeDTO>> nodeStateMachineIdMap = allNodes.stream().collect(Collectors.groupingBy(StateMachineNodeDTO::getStateMachineId));
@@ -8,6 +8,8 @@ import io.choerodon.issue.api.vo.*;
 import io.choerodon.issue.app.service.StateMachineNodeService;
 import io.choerodon.issue.app.service.StatusService;
 import io.choerodon.issue.infra.cache.InstanceCache;
+import io.choerodon.issue.infra.cache.StateMachineStatusCache;
+import io.choerodon.issue.infra.cache.WorkflowSnapshotCache;
 import io.choerodon.issue.infra.dto.StateMachineNodeDTO;
 import io.choerodon.issue.infra.dto.StatusDTO;
 import io.choerodon.issue.infra.dto.StatusWithInfoDTO;
@@ -15,6 +17,7 @@ import io.choerodon.issue.infra.enums.NodeType;
 import io.choerodon.issue.infra.enums.StatusType;
 import io.choerodon.issue.infra.exception.RemoveStatusException;
 import io.choerodon.issue.infra.mapper.*;
+import io.choerodon.issue.infra.utils.ConvertUtils;
 import io.choerodon.issue.infra.utils.EnumUtil;
 import io.choerodon.issue.infra.utils.PageUtil;
 import org.modelmapper.ModelMapper;
@@ -44,6 +47,10 @@ public class StatusServiceImpl implements StatusService {
     @Autowired
     private InstanceCache instanceCache;
     @Autowired
+    private WorkflowSnapshotCache workflowSnapshotCache;
+    @Autowired
+    private StateMachineStatusCache stateMachineStatusCache;
+    @Autowired
     private StateMachineMapper stateMachineMapper;
     @Autowired
     private ModelMapper modelMapper;
@@ -106,6 +113,8 @@ public class StatusServiceImpl implements StatusService {
             throw new CommonException("error.status.update");
         }
         status = statusMapper.queryById(status.getOrganizationId(), status.getId());
+        workflowSnapshotCache.cleanOrganization(status.getOrganizationId());
+        stateMachineStatusCache.cleanOrganization(status.getOrganizationId());
         return modelMapper.map(status, StatusVO.class);
     }
 
@@ -144,8 +153,7 @@ public class StatusServiceImpl implements StatusService {
         StatusDTO status = new StatusDTO();
         status.setOrganizationId(organizationId);
         List<StatusDTO> statuses = statusMapper.select(status);
-        return modelMapper.map(statuses, new TypeToken<List<StatusVO>>() {
-        }.getType());
+        return ConvertUtils.convertStatusesToVOS(statuses);
     }
 
     @Override
@@ -218,6 +226,8 @@ public class StatusServiceImpl implements StatusService {
         nodeService.createNodeAndTransformForAgile(organizationId, stateMachineId, statusVO);
         //清理状态机实例
         instanceCache.cleanStateMachine(stateMachineId);
+        workflowSnapshotCache.cleanOrganization(organizationId);
+        stateMachineStatusCache.cleanOrganization(organizationId);
         return statusVO;
     }
 
@@ -249,14 +259,15 @@ public class StatusServiceImpl implements StatusService {
         }
         //清理状态机实例
         instanceCache.cleanStateMachine(stateMachineId);
+        workflowSnapshotCache.cleanOrganization(organizationId);
+        stateMachineStatusCache.cleanOrganization(organizationId);
     }
 
     @Override
     public List<StatusVO> queryByStateMachineIds(Long organizationId, List<Long> stateMachineIds) {
         if (!stateMachineIds.isEmpty()) {
             List<StatusDTO> statuses = statusMapper.queryByStateMachineIds(organizationId, stateMachineIds);
-            return modelMapper.map(statuses, new TypeToken<List<StatusVO>>() {
-            }.getType());
+            return ConvertUtils.convertStatusesToVOS(statuses);
         }
         return Collections.emptyList();
     }
@@ -2,6 +2,7 @@ package io.choerodon.issue.infra.aspect;
 
 import io.choerodon.core.exception.CommonException;
 import io.choerodon.issue.app.service.StateMachineService;
+import io.choerodon.issue.infra.cache.StateMachineStatusCache;
 import io.choerodon.issue.infra.dto.StateMachineDTO;
 import io.choerodon.issue.infra.enums.StateMachineStatus;
 import io.choerodon.issue.infra.mapper.StateMachineMapper;
@@ -27,6 +28,8 @@ public class ChangeStateMachineStatusAspect {
     private StateMachineMapper stateMachineMapper;
     @Autowired
     private StateMachineService stateMachineService;
+    @Autowired
+    private StateMachineStatusCache stateMachineStatusCache;
 
     @Pointcut("@annotation(io.choerodon.issue.infra.annotation.ChangeStateMachineStatus)")
     public void updateStatusPointcut() {
@@ -56,7 +59,9 @@ public class ChangeStateMachineStatusAspect {
         }
 
         try {
-            return pjp.proceed();
+            Object result = pjp.proceed();
+            stateMachineStatusCache.cleanOrganization(stateMachine.getOrganizationId());
+            return result;
         } catch (Throwable e) {
             throw new CommonException("error.changeStateMachineStatusAspect.proceed", e);
         }
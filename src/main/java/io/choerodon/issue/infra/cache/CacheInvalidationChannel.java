@@ -0,0 +1,58 @@
+package io.choerodon.issue.infra.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存失效的广播通道，保证集群中所有副本（包括当前副本）清除同一个缓存项
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * 广播清除某个缓存项
+     *
+     * @param cacheName 缓存名称
+     * @param key       缓存项id
+     */
+    void publish(String cacheName, Long key);
+
+    /**
+     * 在事务中调用时提交后再广播，避免其他副本在提交前重新加载旧的数据
+     *
+     * @param cacheName 缓存名称
+     * @param key       缓存项id
+     */
+    default void publishAfterCommit(String cacheName, Long key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    publish(cacheName, key);
+                }
+            });
+        } else {
+            publish(cacheName, key);
+        }
+    }
+
+    /**
+     * 接收到其他副本的广播，通知本副本该缓存的监听者
+     *
+     * @param cacheName 缓存名称
+     * @param key       缓存项id
+     */
+    void receive(String cacheName, Long key);
+
+    /**
+     * 注册本副本某个缓存的失效监听者
+     *
+     * @param cacheName 缓存名称
+     * @param listener
+     */
+    void subscribe(String cacheName, Consumer<Long> listener);
+}
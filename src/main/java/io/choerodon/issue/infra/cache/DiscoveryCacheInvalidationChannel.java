@@ -0,0 +1,129 @@
+package io.choerodon.issue.infra.cache;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 基于服务发现的失效通道：先清除本副本，再异步通知注册中心中本服务的其他副本，
+ * 通知失败只记录日志，其他副本的缓存仍会按访问时间过期。
+ * 通知接口只允许内部调用，请求头与feign调用其他服务时一致，由feign的RequestInterceptor生成
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+@ConditionalOnProperty(name = "choerodon.statemachine.cache.invalidation-channel", havingValue = "discovery", matchIfMissing = true)
+public class DiscoveryCacheInvalidationChannel implements CacheInvalidationChannel {
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryCacheInvalidationChannel.class);
+    private static final String CLEAN_URI = "http://%s:%d/v1/statemachine/cache/clean?cache_name=%s&key=%d";
+
+    @Value("${spring.application.name:issue-service}")
+    private String applicationName;
+    @Autowired(required = false)
+    private DiscoveryClient discoveryClient;
+    @Autowired(required = false)
+    private Registration registration;
+
+    @Autowired
+    private CloseableHttpClient httpClient;
+    @Autowired
+    private RequestInterceptor requestInterceptor;
+
+    private RestTemplate restTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "statemachine-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, List<Consumer<Long>>> listenerMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cacheName, Long key) {
+        receive(cacheName, key);
+        List<ServiceInstance> instances = discoveryClient == null ? Collections.emptyList() : discoveryClient.getInstances(applicationName);
+        HttpHeaders headers = null;
+        for (ServiceInstance instance : instances) {
+            if (isSelf(instance)) {
+                continue;
+            }
+            if (headers == null) {
+                headers = internalHeaders();
+            }
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+            executor.execute(() -> notifyInstance(instance, request, cacheName, key));
+        }
+    }
+
+    @Override
+    public void receive(String cacheName, Long key) {
+        listenerMap.getOrDefault(cacheName, Collections.emptyList()).forEach(listener -> listener.accept(key));
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<Long> listener) {
+        listenerMap.computeIfAbsent(cacheName, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @PostConstruct
+    public void init() {
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private void notifyInstance(ServiceInstance instance, HttpEntity<Void> request, String cacheName, Long key) {
+        try {
+            restTemplate.postForEntity(String.format(CLEAN_URI, instance.getHost(), instance.getPort(), cacheName, key),
+                    request, Void.class);
+        } catch (Exception e) {
+            logger.warn("notify cache invalidation failed,instance:{}:{},cacheName:{},key:{},message:{}",
+                    instance.getHost(), instance.getPort(), cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * 内部调用的认证请求头，在发起变更的线程中生成，与该线程中feign调用其他服务时携带的认证信息一致
+     */
+    private HttpHeaders internalHeaders() {
+        RequestTemplate template = new RequestTemplate();
+        requestInterceptor.apply(template);
+        HttpHeaders headers = new HttpHeaders();
+        template.headers().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        return headers;
+    }
+
+    private boolean isSelf(ServiceInstance instance) {
+        return registration != null
+                && registration.getHost().equals(instance.getHost())
+                && registration.getPort() == instance.getPort();
+    }
+}
@@ -0,0 +1,39 @@
+package io.choerodon.issue.infra.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的失效通道，只通知同一个JVM中的监听者，用于单副本部署与测试
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+@ConditionalOnProperty(name = "choerodon.statemachine.cache.invalidation-channel", havingValue = "memory")
+public class InMemoryCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private final Map<String, List<Consumer<Long>>> listenerMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cacheName, Long key) {
+        receive(cacheName, key);
+    }
+
+    @Override
+    public void receive(String cacheName, Long key) {
+        listenerMap.getOrDefault(cacheName, Collections.emptyList()).forEach(listener -> listener.accept(key));
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<Long> listener) {
+        listenerMap.computeIfAbsent(cacheName, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
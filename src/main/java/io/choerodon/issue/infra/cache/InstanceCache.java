@@ -1,138 +1,165 @@
 package io.choerodon.issue.infra.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.choerodon.issue.infra.factory.StateMachineDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.statemachine.StateMachine;
-import org.springframework.statemachine.config.StateMachineBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
+import javax.annotation.PostConstruct;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
+ * 已发布状态机定义与实例的有界缓存，按访问过期并按容量LRU淘汰，
+ * 命中、未命中、淘汰次数通过metric端点暴露
+ *
  * @author shinan.chen
  * @since 2018/12/3
  */
 @Component
 public class InstanceCache {
     private static final Logger logger = LoggerFactory.getLogger(InstanceCache.class);
-    /**
-     * 状态机id -> 状态机构建器
-     */
-    private static Map<Long, StateMachineBuilder.Builder<String, String>> builderMap = new ConcurrentHashMap<>();
+    private static final String CACHE_NAME = "statemachine";
+
+    @Value("${choerodon.statemachine.cache.definition-max-weight:100000}")
+    private long definitionMaxWeight;
+    @Value("${choerodon.statemachine.cache.instance-max-size:200000}")
+    private long instanceMaxSize;
+    @Value("${choerodon.statemachine.cache.expire-after-access-minutes:60}")
+    private long expireAfterAccessMinutes;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
 
     /**
-     * 状态机id -> 状态机实例key的list
+     * 状态机id -> 已发布的状态机定义，按定义大小计算权重
      */
-    private static Map<Long, Set<String>> stateMachineMap = new ConcurrentHashMap<>();
+    private Cache<Long, StateMachineDefinition> definitionCache;
 
     /**
-     * key【服务名:状态机id:实例id】 -> 状态机实例
+     * key【服务名:状态机id:实例id】 -> 实例状态
      */
-    private static Map<String, StateMachine<String, String>> instanceMap = new ConcurrentHashMap<>();
+    private Cache<String, InstanceState> instanceCache;
 
     /**
-     * 实例存活计数，初始创建value = 2，每次 get + 1，定时任务每次全部实例-1，并清除value为0的实例，
+     * 状态机id -> 版本号，清除某个状态机时版本号+1，旧版本的实例在读取时视为失效
      */
-    private static Map<String, Integer> aliveMap = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versionMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        definitionCache = Caffeine.newBuilder()
+                .maximumWeight(definitionMaxWeight)
+                .weigher((Long stateMachineId, StateMachineDefinition definition) -> definition.size())
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        instanceCache = Caffeine.newBuilder()
+                .maximumSize(instanceMaxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, definitionCache, "statemachine.definition");
+            CaffeineCacheMetrics.monitor(meterRegistry, instanceCache, "statemachine.instance");
+        }
+        invalidationChannel.subscribe(CACHE_NAME, this::invalidateStateMachine);
+    }
 
     /**
      * 清除单个实例
      */
     public void cleanInstance(String key) {
-        instanceMap.remove(key);
+        instanceCache.invalidate(key);
     }
 
     /**
-     * 清除某个状态机的所有实例
+     * 清除某个状态机的定义与所有实例，并广播到集群中的其他副本，
+     * 在事务中调用时提交后再次清除并广播，避免其他副本在提交前重新加载旧的定义
      */
     public void cleanStateMachine(Long stateMachineId) {
-        builderMap.remove(stateMachineId);
-        Set<String> instanceKeys = stateMachineMap.get(stateMachineId);
-        if (instanceKeys != null) {
-            stateMachineMap.remove(stateMachineId);
-            instanceKeys.forEach(key -> instanceMap.remove(key));
-        }
+        invalidateStateMachine(stateMachineId);
+        invalidationChannel.publishAfterCommit(CACHE_NAME, stateMachineId);
     }
 
     /**
-     * 缓存状态机构建器
+     * 只清除本副本中某个状态机的定义与所有实例
      */
-    public void putBuilder(Long stateMachineId, StateMachineBuilder.Builder<String, String> builder) {
-        builderMap.put(stateMachineId, builder);
+    public void invalidateStateMachine(Long stateMachineId) {
+        definitionCache.invalidate(stateMachineId);
+        versionMap.merge(stateMachineId, 1L, Long::sum);
     }
 
     /**
-     * 缓存状态机实例
+     * 缓存实例当前节点
      */
-    public void putInstance(String serviceCode, Long stateMachineId, Long instanceId, StateMachine<String, String> stateMachineInstance) {
+    public void putInstance(String serviceCode, Long stateMachineId, Long instanceId, Long currentNodeId) {
         String key = serviceCode + ":" + stateMachineId + ":" + instanceId;
-        instanceMap.put(key, stateMachineInstance);
-        aliveMap.put(key, 2);
-        Set<String> instanceKeys = stateMachineMap.get(stateMachineId);
-        if (instanceKeys != null) {
-            instanceKeys.add(key);
-        } else {
-            instanceKeys = new HashSet<>();
-            instanceKeys.add(key);
-            stateMachineMap.put(stateMachineId, instanceKeys);
-        }
+        instanceCache.put(key, new InstanceState(getVersion(stateMachineId), currentNodeId));
     }
 
     /**
-     * 获取状态机构建器
+     * 获取状态机定义，不存在时通过loader加载并缓存，同一状态机的并发加载只执行一次
      */
-    public StateMachineBuilder.Builder<String, String> getBuilder(Long stateMachineId) {
-        return builderMap.get(stateMachineId);
+    public StateMachineDefinition getDefinition(Long stateMachineId, Function<Long, StateMachineDefinition> loader) {
+        return definitionCache.get(stateMachineId, loader);
     }
 
     /**
-     * 获取单个实例
+     * 获取单个实例的当前节点id
      */
-    public StateMachine<String, String> getInstance(String serviceCode, Long stateMachineId, Long instanceId) {
+    public Long getInstance(String serviceCode, Long stateMachineId, Long instanceId) {
         String key = serviceCode + ":" + stateMachineId + ":" + instanceId;
-        Integer aliveCount = aliveMap.get(key);
-        if (aliveCount != null && aliveCount != 0) {
-            aliveMap.put(key, aliveCount + 1);
+        InstanceState state = instanceCache.getIfPresent(key);
+        if (state == null) {
+            return null;
+        }
+        if (state.version != getVersion(stateMachineId)) {
+            instanceCache.invalidate(key);
+            return null;
         }
-        return instanceMap.get(key);
+        return state.currentNodeId;
     }
 
     /**
-     * 每天凌晨定时清理所有实例数据
+     * 手动清理所有实例数据
      */
     public void cleanAllInstances() {
-        logger.info("每天凌晨清理状态机实例：清理构建器{}个，状态机实例{}个", builderMap.size(), instanceMap.size());
-        builderMap.clear();
-        stateMachineMap.clear();
-        instanceMap.clear();
-        aliveMap.clear();
+        logger.info("清理状态机实例：清理状态机定义{}个，状态机实例{}个", definitionCache.estimatedSize(), instanceCache.estimatedSize());
+        definitionCache.invalidateAll();
+        instanceCache.invalidateAll();
     }
 
     /**
-     * 定时清理状态机实例，每次进行判断所有实例的aliveCount-1，
-     * 当aliveCount为0时，则清除该实例，该实例在每次使用时
-     * aliveCount+1，使用次数越多存活时间越久
+     * 执行过期实例的清理，并记录缓存统计
      */
     public void cleanInstanceTask() {
-        int alive = 0;
-        int clean = 0;
-        for (Map.Entry<String, Integer> entry : aliveMap.entrySet()) {
-            String key = entry.getKey();
-            Integer aliveCount = entry.getValue();
-            aliveCount = aliveCount - 1;
-            if (aliveCount == 0) {
-                //清理实例
-                cleanInstance(key);
-                aliveMap.remove(key);
-                clean++;
-            } else {
-                aliveMap.put(key, aliveCount);
-                alive++;
-            }
+        definitionCache.cleanUp();
+        instanceCache.cleanUp();
+        logger.info("定时清理状态机实例：存活状态机定义{}个，存活实例{}个，状态机定义统计{}，实例统计{}",
+                definitionCache.estimatedSize(), instanceCache.estimatedSize(), definitionCache.stats(), instanceCache.stats());
+    }
+
+    private long getVersion(Long stateMachineId) {
+        return versionMap.getOrDefault(stateMachineId, 0L);
+    }
+
+    private static final class InstanceState {
+        private final long version;
+        private final Long currentNodeId;
+
+        private InstanceState(long version, Long currentNodeId) {
+            this.version = version;
+            this.currentNodeId = currentNodeId;
         }
-        logger.info("定时清理状态机实例：清理实例{}个，存活实例{}个", clean, alive);
     }
 }
@@ -0,0 +1,189 @@
+package io.choerodon.issue.infra.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.choerodon.issue.api.vo.PageFieldViewVO;
+import io.choerodon.issue.infra.enums.FieldType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 项目页面字段布局的缓存：【组织id:项目id:页面编码:上下文】 -> 带选项与默认值的字段列表，
+ * 组织下的字段、字段选项或页面字段发生变化时整个组织的布局失效，系统字段（所有组织共用）发生变化时所有组织的布局失效，缓存的列表只读；
+ * 人员类型字段默认值对应的用户信息不缓存，每次请求时填充
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class PageFieldLayoutCache {
+    private static final String CACHE_NAME = "page-field-layout";
+    private static final String GLOBAL_CACHE_NAME = "page-field-layout-global";
+
+    @Value("${choerodon.page-field.layout-cache.max-size:2000}")
+    private long maxSize;
+    @Value("${choerodon.statemachine.cache.expire-after-access-minutes:60}")
+    private long expireAfterAccessMinutes;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    private Cache<String, Layout> layoutCache;
+
+    /**
+     * 组织id -> 版本号，组织的布局失效时版本号+1
+     */
+    private final Map<Long, Long> versionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 全局版本号，系统字段变化时+1，所有组织的布局失效
+     */
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        layoutCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, layoutCache, "page-field.layout");
+        }
+        invalidationChannel.subscribe(CACHE_NAME, this::invalidateOrganization);
+        invalidationChannel.subscribe(GLOBAL_CACHE_NAME, key -> globalVersion.incrementAndGet());
+    }
+
+    /**
+     * 获取项目的页面字段布局，不存在或已失效时通过loader加载，在事务中加载时提交后再放入缓存
+     *
+     * @param organizationId
+     * @param projectId
+     * @param pageCode
+     * @param context
+     * @param loader
+     * @return
+     */
+    public Layout getLayout(Long organizationId, Long projectId, String pageCode, String context, Supplier<List<PageFieldViewVO>> loader) {
+        String key = organizationId + ":" + projectId + ":" + pageCode + ":" + context;
+        long version = versionMap.getOrDefault(organizationId, 0L);
+        long global = globalVersion.get();
+        Layout layout = layoutCache.getIfPresent(key);
+        if (layout == null || layout.version != version || layout.globalVersion != global) {
+            Layout loaded = new Layout(organizationId, version, global, Collections.unmodifiableList(loader.get()));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        putIfCurrent(key, loaded);
+                    }
+                });
+            } else {
+                putIfCurrent(key, loaded);
+            }
+            layout = loaded;
+        }
+        return layout;
+    }
+
+    /**
+     * 加载期间组织或全局的布局已失效时不放入
+     */
+    private void putIfCurrent(String key, Layout layout) {
+        if (versionMap.getOrDefault(layout.organizationId, 0L) == layout.version
+                && globalVersion.get() == layout.globalVersion) {
+            layoutCache.put(key, layout);
+        }
+    }
+
+    /**
+     * 清除组织下所有项目的页面字段布局，并广播到集群中的其他副本
+     */
+    public void cleanOrganization(Long organizationId) {
+        invalidateOrganization(organizationId);
+        invalidationChannel.publishAfterCommit(CACHE_NAME, organizationId);
+    }
+
+    /**
+     * 清除所有组织的页面字段布局，用于系统字段的变化，并广播到集群中的其他副本
+     */
+    public void cleanAll() {
+        globalVersion.incrementAndGet();
+        invalidationChannel.publishAfterCommit(GLOBAL_CACHE_NAME, 0L);
+    }
+
+    private void invalidateOrganization(Long organizationId) {
+        versionMap.merge(organizationId, 1L, Long::sum);
+    }
+
+    /**
+     * 日期类字段勾选了默认当前时间时，默认值需要在每次请求时重新生成
+     */
+    public static boolean isDefaultNow(PageFieldViewVO view) {
+        switch (view.getFieldType()) {
+            case FieldType.DATETIME:
+            case FieldType.DATE:
+            case FieldType.TIME:
+                return Boolean.TRUE.equals(view.getExtraConfig());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 人员类型字段的默认值对应的用户信息可能变化，需要在每次请求时填充
+     */
+    public static boolean isMemberDefault(PageFieldViewVO view) {
+        return FieldType.MEMBER.equals(view.getFieldType()) && view.getDefaultValue() instanceof Long;
+    }
+
+    public static final class Layout {
+        private final Long organizationId;
+        private final long version;
+        private final long globalVersion;
+        private final String etag;
+        private final List<PageFieldViewVO> pageFieldViews;
+
+        private Layout(Long organizationId, long version, long globalVersion, List<PageFieldViewVO> pageFieldViews) {
+            this.organizationId = organizationId;
+            this.version = version;
+            this.globalVersion = globalVersion;
+            this.pageFieldViews = pageFieldViews;
+            //默认值为当前时间或人员的布局每次返回的内容可能不同，不提供ETag
+            if (pageFieldViews.stream().anyMatch(view -> isDefaultNow(view) || isMemberDefault(view))) {
+                this.etag = null;
+            } else {
+                this.etag = "\"" + DigestUtils.md5DigestAsHex(JSON.toJSONBytes(pageFieldViews, SerializerFeature.MapSortField)) + "\"";
+            }
+        }
+
+        /**
+         * 布局的ETag，为null时表示不支持条件请求
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<PageFieldViewVO> getPageFieldViews() {
+            return pageFieldViews;
+        }
+    }
+}
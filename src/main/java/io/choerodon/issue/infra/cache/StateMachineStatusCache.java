@@ -0,0 +1,122 @@
+package io.choerodon.issue.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.choerodon.issue.api.vo.StateMachineWithStatusVO;
+import io.choerodon.issue.infra.utils.ConvertUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 组织下所有状态机及其状态列表的缓存：组织id -> 状态机列表，
+ * 组织下的状态机、节点或状态发生变化时失效，缓存的列表只读，每次返回状态机及状态的拷贝
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class StateMachineStatusCache {
+    private static final String CACHE_NAME = "statemachine-status";
+
+    @Value("${choerodon.statemachine.status-cache.max-size:1000}")
+    private long maxSize;
+    @Value("${choerodon.statemachine.cache.expire-after-access-minutes:60}")
+    private long expireAfterAccessMinutes;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    private Cache<Long, Entry> statusCache;
+
+    /**
+     * 组织id -> 版本号，组织的缓存失效时版本号+1，加载期间发生的失效不会被旧数据覆盖
+     */
+    private final Map<Long, Long> versionMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        statusCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, statusCache, "statemachine.status");
+        }
+        invalidationChannel.subscribe(CACHE_NAME, this::invalidateOrganization);
+    }
+
+    /**
+     * 获取组织下所有状态机及其状态列表，不存在或已失效时通过loader加载，返回的是缓存的拷贝
+     *
+     * @param organizationId
+     * @param loader
+     * @return
+     */
+    public List<StateMachineWithStatusVO> getStateMachines(Long organizationId, Supplier<List<StateMachineWithStatusVO>> loader) {
+        long version = versionMap.getOrDefault(organizationId, 0L);
+        Entry entry = statusCache.getIfPresent(organizationId);
+        if (entry == null || entry.version != version) {
+            List<StateMachineWithStatusVO> stateMachines = loader.get();
+            Entry loaded = new Entry(version, Collections.unmodifiableList(ConvertUtils.copyStateMachinesWithStatus(stateMachines)));
+            //事务中加载的可能是未提交的数据，提交后再放入缓存，回滚时丢弃
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        putIfCurrent(organizationId, loaded);
+                    }
+                });
+            } else {
+                putIfCurrent(organizationId, loaded);
+            }
+            return stateMachines;
+        }
+        return ConvertUtils.copyStateMachinesWithStatus(entry.stateMachines);
+    }
+
+    /**
+     * 加载期间组织的缓存已失效时不放入
+     */
+    private void putIfCurrent(Long organizationId, Entry entry) {
+        if (versionMap.getOrDefault(organizationId, 0L) == entry.version) {
+            statusCache.put(organizationId, entry);
+        }
+    }
+
+    /**
+     * 清除组织的缓存，并广播到集群中的其他副本
+     */
+    public void cleanOrganization(Long organizationId) {
+        invalidateOrganization(organizationId);
+        invalidationChannel.publishAfterCommit(CACHE_NAME, organizationId);
+    }
+
+    private void invalidateOrganization(Long organizationId) {
+        versionMap.merge(organizationId, 1L, Long::sum);
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final List<StateMachineWithStatusVO> stateMachines;
+
+        private Entry(long version, List<StateMachineWithStatusVO> stateMachines) {
+            this.version = version;
+            this.stateMachines = stateMachines;
+        }
+    }
+}
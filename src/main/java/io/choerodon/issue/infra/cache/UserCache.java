@@ -0,0 +1,146 @@
+package io.choerodon.issue.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.choerodon.issue.infra.feign.IamFeignClient;
+import io.choerodon.issue.infra.feign.vo.UserVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * iam用户信息的有界缓存，不存在的用户也会短暂缓存；
+ * 未命中的用户合并为一次feign请求，并发请求同一个用户时只查询一次
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class UserCache {
+
+    @Value("${choerodon.iam.user-cache.max-size:10000}")
+    private long maxSize;
+    @Value("${choerodon.iam.user-cache.expire-after-write-seconds:300}")
+    private long expireAfterWriteSeconds;
+    @Value("${choerodon.iam.user-cache.absent-expire-after-write-seconds:30}")
+    private long absentExpireAfterWriteSeconds;
+    @Autowired
+    private IamFeignClient iamFeignClient;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 用户id -> 用户，Optional.empty()表示iam中不存在该用户
+     */
+    private Cache<Long, Optional<UserVO>> userCache;
+
+    /**
+     * 正在查询的用户id -> 查询结果
+     */
+    private final Map<Long, CompletableFuture<Optional<UserVO>>> loadingMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<UserVO>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<UserVO> user, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(user.isPresent() ? expireAfterWriteSeconds : absentExpireAfterWriteSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<UserVO> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<UserVO> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, userCache, "iam.user");
+        }
+    }
+
+    /**
+     * 批量获取用户，不存在的用户不在结果中
+     *
+     * @param userIds
+     * @return 用户id -> 用户
+     */
+    public Map<Long, UserVO> listUsers(Collection<Long> userIds) {
+        Map<Long, UserVO> result = new HashMap<>(userIds.size());
+        List<Long> loadIds = new ArrayList<>();
+        Map<Long, CompletableFuture<Optional<UserVO>>> ownFutures = new HashMap<>();
+        Map<Long, CompletableFuture<Optional<UserVO>>> waitFutures = new HashMap<>();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            Optional<UserVO> user = userCache.getIfPresent(userId);
+            if (user != null) {
+                user.ifPresent(x -> result.put(userId, x));
+                continue;
+            }
+            CompletableFuture<Optional<UserVO>> future = new CompletableFuture<>();
+            CompletableFuture<Optional<UserVO>> loading = loadingMap.putIfAbsent(userId, future);
+            if (loading == null) {
+                loadIds.add(userId);
+                ownFutures.put(userId, future);
+            } else {
+                waitFutures.put(userId, loading);
+            }
+        }
+        if (!loadIds.isEmpty()) {
+            load(loadIds, ownFutures).forEach((userId, user) -> user.ifPresent(x -> result.put(userId, x)));
+        }
+        waitFutures.forEach((userId, future) -> {
+            try {
+                future.join().ifPresent(x -> result.put(userId, x));
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取单个用户，不存在时返回null
+     */
+    public UserVO getUser(Long userId) {
+        return listUsers(Collections.singletonList(userId)).get(userId);
+    }
+
+    private Map<Long, Optional<UserVO>> load(List<Long> userIds, Map<Long, CompletableFuture<Optional<UserVO>>> futures) {
+        Map<Long, Optional<UserVO>> loaded = new HashMap<>(userIds.size());
+        try {
+            List<UserVO> users = iamFeignClient.listUsersByIds(userIds.toArray(new Long[0]), false).getBody();
+            if (users != null) {
+                users.forEach(user -> loaded.put(user.getId(), Optional.of(user)));
+            }
+            userIds.forEach(userId -> loaded.putIfAbsent(userId, Optional.empty()));
+            userCache.putAll(loaded);
+            futures.forEach((userId, future) -> future.complete(loaded.get(userId)));
+            return loaded;
+        } catch (RuntimeException e) {
+            futures.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            futures.forEach(loadingMap::remove);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.choerodon.issue.infra.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.choerodon.issue.api.vo.payload.TransformVO;
+import io.choerodon.issue.infra.utils.ConvertUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 项目工作流快照的缓存：【项目id:应用类型】 -> 问题类型id -> 状态id -> 转换列表，
+ * 组织下发布或删除状态机、发布状态机方案（复制方案配置到发布）、修改状态或问题类型方案时整个组织的快照失效，
+ * 项目关联方案时该项目的快照失效，缓存的快照只在事务提交后放入，每次返回快照的拷贝
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class WorkflowSnapshotCache {
+    private static final String CACHE_NAME = "workflow";
+    private static final String PROJECT_CACHE_NAME = "workflow-project";
+
+    @Value("${choerodon.workflow.snapshot-cache.max-size:2000}")
+    private long maxSize;
+    @Value("${choerodon.statemachine.cache.expire-after-access-minutes:60}")
+    private long expireAfterAccessMinutes;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    private Cache<String, Snapshot> snapshotCache;
+
+    /**
+     * 组织id -> 版本号，组织的快照失效时版本号+1
+     */
+    private final Map<Long, Long> versionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 项目id -> 版本号，项目的快照失效时版本号+1
+     */
+    private final Map<Long, Long> projectVersionMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        snapshotCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, snapshotCache, "workflow.snapshot");
+        }
+        invalidationChannel.subscribe(CACHE_NAME, this::invalidateOrganization);
+        invalidationChannel.subscribe(PROJECT_CACHE_NAME, this::invalidateProject);
+    }
+
+    /**
+     * 获取项目的工作流快照，不存在或已失效时重新构建
+     *
+     * @param organizationId
+     * @param projectId
+     * @param applyType
+     * @param builder
+     * @return
+     */
+    public Snapshot getSnapshot(Long organizationId, Long projectId, String applyType, Supplier<Map<Long, Map<Long, List<TransformVO>>>> builder) {
+        String key = projectId + ":" + applyType;
+        long version = versionMap.getOrDefault(organizationId, 0L);
+        long projectVersion = projectVersionMap.getOrDefault(projectId, 0L);
+        Snapshot snapshot = snapshotCache.getIfPresent(key);
+        if (snapshot == null || snapshot.version != version || snapshot.projectVersion != projectVersion) {
+            Snapshot loaded = new Snapshot(organizationId, projectId, version, projectVersion, ConvertUtils.copyTransformsMap(builder.get()));
+            //事务中构建的可能是未提交的数据，提交后再放入缓存，回滚时丢弃
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        putIfCurrent(key, loaded);
+                    }
+                });
+            } else {
+                putIfCurrent(key, loaded);
+            }
+            snapshot = loaded;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 构建期间组织或项目的快照已失效时不放入
+     */
+    private void putIfCurrent(String key, Snapshot snapshot) {
+        if (versionMap.getOrDefault(snapshot.organizationId, 0L) == snapshot.version
+                && projectVersionMap.getOrDefault(snapshot.projectId, 0L) == snapshot.projectVersion) {
+            snapshotCache.put(key, snapshot);
+        }
+    }
+
+    /**
+     * 清除组织下所有项目的工作流快照，并广播到集群中的其他副本
+     */
+    public void cleanOrganization(Long organizationId) {
+        invalidateOrganization(organizationId);
+        invalidationChannel.publishAfterCommit(CACHE_NAME, organizationId);
+    }
+
+    /**
+     * 清除项目的工作流快照，并广播到集群中的其他副本
+     */
+    public void cleanProject(Long projectId) {
+        invalidateProject(projectId);
+        invalidationChannel.publishAfterCommit(PROJECT_CACHE_NAME, projectId);
+    }
+
+    private void invalidateOrganization(Long organizationId) {
+        versionMap.merge(organizationId, 1L, Long::sum);
+    }
+
+    private void invalidateProject(Long projectId) {
+        projectVersionMap.merge(projectId, 1L, Long::sum);
+    }
+
+    public static final class Snapshot {
+        private final Long organizationId;
+        private final Long projectId;
+        private final long version;
+        private final long projectVersion;
+        private final String etag;
+        private final Map<Long, Map<Long, List<TransformVO>>> transformsMap;
+
+        private Snapshot(Long organizationId, Long projectId, long version, long projectVersion, Map<Long, Map<Long, List<TransformVO>>> transformsMap) {
+            this.organizationId = organizationId;
+            this.projectId = projectId;
+            this.version = version;
+            this.projectVersion = projectVersion;
+            this.transformsMap = transformsMap;
+            //按内容计算，不同副本构建的相同快照得到相同的ETag
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(JSON.toJSONBytes(transformsMap, SerializerFeature.MapSortField)) + "\"";
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 返回快照的拷贝，调用方修改不影响缓存
+         */
+        public Map<Long, Map<Long, List<TransformVO>>> getTransformsMap() {
+            return ConvertUtils.copyTransformsMap(transformsMap);
+        }
+    }
+}
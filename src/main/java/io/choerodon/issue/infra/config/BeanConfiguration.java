@@ -1,10 +1,14 @@
 package io.choerodon.issue.infra.config;
 
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Properties;
+
 /**
  * @author shinan.chen
  * @date 2018/9/27
@@ -19,4 +23,17 @@ public class BeanConfiguration {
         return modelMapper;
     }
 
+    /**
+     * 按数据库区分mapper中的语句，如MySQL下流式读取的fetchSize
+     */
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties properties = new Properties();
+        properties.setProperty("MySQL", "mysql");
+        properties.setProperty("H2", "h2");
+        VendorDatabaseIdProvider databaseIdProvider = new VendorDatabaseIdProvider();
+        databaseIdProvider.setProperties(properties);
+        return databaseIdProvider;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package io.choerodon.issue.infra.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+
+/**
+ * 异步执行转换的线程池：调用对应服务期间占用该线程池的线程，不占用undertow的工作线程，
+ * 线程池与队列都满时直接拒绝
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Configuration
+public class CallbackExecutorConfiguration {
+
+    @Value("${choerodon.statemachine.callback-executor.pool-size:200}")
+    private int poolSize;
+    @Value("${choerodon.statemachine.callback-executor.queue-capacity:2000}")
+    private int queueCapacity;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Bean("callbackExecutor")
+    public ThreadPoolTaskExecutor callbackExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        //线程只在队列满后才会超过核心线程数，调用对应服务以等待为主，核心线程数与最大线程数相同，空闲时回收
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("statemachine-callback-");
+        //feign调用对应服务时需要当前用户的认证信息
+        executor.setTaskDecorator(runnable -> {
+            SecurityContext context = SecurityContextHolder.getContext();
+            return () -> {
+                SecurityContextHolder.setContext(context);
+                try {
+                    runnable.run();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            };
+        });
+        executor.initialize();
+        if (meterRegistry != null) {
+            ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "statemachine.callback.executor", Collections.emptyList());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,83 @@
+package io.choerodon.issue.infra.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的带连接池的http客户端：feign调用对应服务（包括动态URI的CustomFeignClientAdaptor）与服务上线时获取配置共用，
+ * 长连接按keep-alive复用，按路由限制连接数
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    @Value("${choerodon.http-client.max-total:200}")
+    private int maxTotal;
+    @Value("${choerodon.http-client.max-per-route:50}")
+    private int maxPerRoute;
+    @Value("${choerodon.http-client.connect-timeout-millis:5000}")
+    private int connectTimeoutMillis;
+    @Value("${choerodon.http-client.read-timeout-millis:30000}")
+    private int readTimeoutMillis;
+    @Value("${choerodon.http-client.keep-alive-millis:30000}")
+    private long keepAliveMillis;
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAliveMillis, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        //空闲超过2秒的连接在复用前检查是否已被对方关闭
+        connectionManager.setValidateAfterInactivity(2000);
+        return connectionManager;
+    }
+
+    /**
+     * feign的LoadBalancerFeignClient使用该客户端，请求的超时以ribbon的配置为准
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    //服务端声明了keep-alive时间时取较小值
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    /**
+     * 连接池指标：已租用、等待中、可用的连接数
+     */
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        return registry -> {
+            Gauge.builder("http.client.pool.leased", httpClientConnectionManager, x -> x.getTotalStats().getLeased()).register(registry);
+            Gauge.builder("http.client.pool.pending", httpClientConnectionManager, x -> x.getTotalStats().getPending()).register(registry);
+            Gauge.builder("http.client.pool.available", httpClientConnectionManager, x -> x.getTotalStats().getAvailable()).register(registry);
+            Gauge.builder("http.client.pool.max", httpClientConnectionManager, x -> x.getTotalStats().getMax()).register(registry);
+        };
+    }
+}
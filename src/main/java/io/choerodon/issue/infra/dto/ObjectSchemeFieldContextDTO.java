@@ -0,0 +1,55 @@
+package io.choerodon.issue.infra.dto;
+
+import io.choerodon.mybatis.entity.BaseDTO;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * 字段上下文，object_scheme_field.context拆分后的每一项，用于按上下文过滤字段
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Table(name = "object_scheme_field_context")
+public class ObjectSchemeFieldContextDTO extends BaseDTO {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long fieldId;
+    private String context;
+
+    public ObjectSchemeFieldContextDTO() {
+    }
+
+    public ObjectSchemeFieldContextDTO(Long fieldId, String context) {
+        this.fieldId = fieldId;
+        this.context = context;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getFieldId() {
+        return fieldId;
+    }
+
+    public void setFieldId(Long fieldId) {
+        this.fieldId = fieldId;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public void setContext(String context) {
+        this.context = context;
+    }
+}
@@ -3,6 +3,7 @@ package io.choerodon.issue.infra.dto;
 import io.choerodon.mybatis.entity.BaseDTO;
 
 import javax.persistence.*;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -20,12 +21,63 @@ public class StateMachineSchemeDTO extends BaseDTO {
     private Long organizationId;
     private Integer deployProgress;
     private String deployStatus;
+    /**
+     * 发布时按项目分批发送，批次总数、已发送与已完成的批次数用于中断后继续发布
+     */
+    private Integer deployBatchCount;
+    private Integer deployBatchSent;
+    private Integer deployBatchDone;
+    /**
+     * 当前批次的发送时间与重发次数，批次超时未完成时重发或标记发布失败
+     */
+    private Date deployBatchSentTime;
+    private Integer deployBatchResend;
 
     @Transient
     private List<StateMachineSchemeConfigDTO> schemeConfigs;
     @Transient
     private List<ProjectConfigDTO> projectConfigs;
 
+    public Integer getDeployBatchCount() {
+        return deployBatchCount;
+    }
+
+    public void setDeployBatchCount(Integer deployBatchCount) {
+        this.deployBatchCount = deployBatchCount;
+    }
+
+    public Integer getDeployBatchSent() {
+        return deployBatchSent;
+    }
+
+    public void setDeployBatchSent(Integer deployBatchSent) {
+        this.deployBatchSent = deployBatchSent;
+    }
+
+    public Integer getDeployBatchDone() {
+        return deployBatchDone;
+    }
+
+    public void setDeployBatchDone(Integer deployBatchDone) {
+        this.deployBatchDone = deployBatchDone;
+    }
+
+    public Date getDeployBatchSentTime() {
+        return deployBatchSentTime;
+    }
+
+    public void setDeployBatchSentTime(Date deployBatchSentTime) {
+        this.deployBatchSentTime = deployBatchSentTime;
+    }
+
+    public Integer getDeployBatchResend() {
+        return deployBatchResend;
+    }
+
+    public void setDeployBatchResend(Integer deployBatchResend) {
+        this.deployBatchResend = deployBatchResend;
+    }
+
     public Integer getDeployProgress() {
         return deployProgress;
     }
@@ -11,4 +11,6 @@ public class StateMachineSchemeDeployStatus {
     public static final String DOING = "doing";
 
     public static final String DONE = "done";
+
+    public static final String FAILED = "failed";
 }
@@ -0,0 +1,68 @@
+package io.choerodon.issue.infra.factory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按服务协商执行转换时的回调协议，服务在注册中心的元数据 statemachine-callback 中声明支持的协议，多个以逗号分隔：
+ * combined：条件、验证、后置动作合并为一次调用；batch：批量执行转换时多个实例合并为一次调用。
+ * 有任一副本未声明（如滚动升级期间）时仍使用原有的分步、逐个实例调用
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class CallbackProtocolNegotiator {
+    public static final String METADATA_KEY = "statemachine-callback";
+    public static final String COMBINED = "combined";
+    public static final String BATCH = "batch";
+
+    @Value("${choerodon.statemachine.combined-callback.enabled:true}")
+    private boolean enabled;
+    @Value("${choerodon.statemachine.batch-callback.enabled:true}")
+    private boolean batchEnabled;
+    @Autowired(required = false)
+    private DiscoveryClient discoveryClient;
+
+    /**
+     * 服务的所有副本是否都支持合并回调
+     *
+     * @param serviceCode
+     * @return
+     */
+    public boolean supportsCombined(String serviceCode) {
+        return enabled && allInstancesSupport(serviceCode, COMBINED);
+    }
+
+    /**
+     * 服务的所有副本是否都支持批量回调
+     *
+     * @param serviceCode
+     * @return
+     */
+    public boolean supportsBatch(String serviceCode) {
+        return batchEnabled && allInstancesSupport(serviceCode, BATCH);
+    }
+
+    private boolean allInstancesSupport(String serviceCode, String protocol) {
+        if (discoveryClient == null) {
+            return false;
+        }
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceCode);
+        if (instances.isEmpty()) {
+            return false;
+        }
+        return instances.stream().allMatch(instance -> instance.getMetadata() != null
+                && declares(instance.getMetadata().get(METADATA_KEY), protocol));
+    }
+
+    private static boolean declares(String metadata, String protocol) {
+        return metadata != null && Arrays.stream(metadata.split(",")).map(String::trim).anyMatch(protocol::equals);
+    }
+}
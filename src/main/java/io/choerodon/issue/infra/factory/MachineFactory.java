@@ -1,30 +1,30 @@
 package io.choerodon.issue.infra.factory;
 
+import com.google.common.collect.Lists;
 import io.choerodon.core.exception.CommonException;
+import io.choerodon.issue.api.vo.ExecuteConfigBatchVO;
 import io.choerodon.issue.api.vo.ExecuteResult;
+import io.choerodon.issue.api.vo.ExecuteTransformVO;
 import io.choerodon.issue.api.vo.InputVO;
+import io.choerodon.issue.api.vo.StateMachineConfigVO;
 import io.choerodon.issue.app.service.InstanceService;
+import io.choerodon.issue.app.service.StateMachineConfigService;
 import io.choerodon.issue.app.service.StateMachineNodeService;
 import io.choerodon.issue.app.service.StateMachineService;
-import io.choerodon.issue.app.service.StateMachineTransformService;
 import io.choerodon.issue.infra.cache.InstanceCache;
 import io.choerodon.issue.infra.dto.StateMachineDTO;
-import io.choerodon.issue.infra.dto.StateMachineNodeDTO;
 import io.choerodon.issue.infra.dto.StateMachineTransformDTO;
-import io.choerodon.issue.infra.enums.TransformType;
-import io.choerodon.issue.infra.mapper.StateMachineNodeMapper;
+import io.choerodon.issue.infra.enums.ConfigType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.statemachine.StateMachine;
-import org.springframework.statemachine.action.Action;
-import org.springframework.statemachine.config.StateMachineBuilder;
-import org.springframework.statemachine.guard.Guard;
-import org.springframework.statemachine.support.DefaultStateMachineContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import java.util.*;
 
 /**
  * @author shinan.chen
@@ -34,80 +34,57 @@ import java.util.stream.Collectors;
 public class MachineFactory {
     private static Logger logger = LoggerFactory.getLogger(MachineFactory.class);
 
-    private static final String EXECUTE_RESULT = "executeResult";
-    private static final String INPUT_VO = "inputVO";
     @Autowired
     private StateMachineService stateMachineService;
     @Autowired
-    private StateMachineTransformService transformService;
-    @Autowired
     private StateMachineNodeService nodeService;
     @Autowired
-    private StateMachineNodeMapper nodeDeployMapper;
-    @Autowired
     private InstanceService instanceService;
     @Autowired
     private InstanceCache instanceCache;
+    @Autowired
+    private StateMachineConfigService configService;
+    @Autowired
+    private CallbackProtocolNegotiator callbackProtocolNegotiator;
+    /**
+     * 无状态执行的服务，转换只依据调用方传入的当前状态，不缓存实例
+     */
+    @Value("${choerodon.statemachine.stateless-services:}")
+    private String[] statelessServices;
+    /**
+     * 批量回调时每次调用对应服务包含的最大实例数量
+     */
+    @Value("${choerodon.statemachine.batch-callback.max-size:100}")
+    private int batchCallbackMaxSize;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    private StateMachineBuilder.Builder<String, String> getBuilder(Long organizationId, String serviceCode, Long stateMachineId) {
-        StateMachineDTO stateMachine = stateMachineService.queryDeployForInstance(organizationId, stateMachineId);
-        List<StateMachineNodeDTO> nodes = stateMachine.getNodes();
-        List<StateMachineTransformDTO> transforms = stateMachine.getTransforms();
-        Long initNodeId = nodeService.getInitNode(organizationId, stateMachineId);
+    /**
+     * 加载发布的定义使用只读的短事务，执行转换时调用对应服务不占用数据库连接
+     */
+    private TransactionTemplate readOnlyTemplate;
 
-        StateMachineBuilder.Builder<String, String> builder = StateMachineBuilder.builder();
-        try {
-            builder.configureConfiguration()
-                    .withConfiguration()
-                    .machineId(stateMachineId.toString());
-            builder.configureStates()
-                    .withStates()
-                    .initial(initNodeId.toString(), initialAction(organizationId, serviceCode))
-                    .states(nodes.stream().map(x -> x.getId().toString()).collect(Collectors.toSet()));
-            for (StateMachineTransformDTO transform : transforms) {
-                if (transform.getType().equals(TransformType.ALL)) {
-                    //若配置了全部转换
-                    for (StateMachineNodeDTO node : nodes) {
-                        String event = transform.getId().toString();
-                        String source = node.getId().toString();
-                        String target = transform.getEndNodeId().toString();
-                        builder.configureTransitions()
-                                .withExternal()
-                                .source(source).target(target)
-                                .event(event)
-                                .action(action(organizationId, serviceCode), errorAction(organizationId, serviceCode))
-                                .guard(guard(organizationId, serviceCode));
-                    }
-                } else {
-                    //转换都是通过id配置
-                    String event = transform.getId().toString();
-                    String source = transform.getStartNodeId().toString();
-                    String target = transform.getEndNodeId().toString();
-                    builder.configureTransitions()
-                            .withExternal()
-                            .source(source).target(target)
-                            .event(event)
-                            .action(action(organizationId, serviceCode), errorAction(organizationId, serviceCode))
-                            .guard(guard(organizationId, serviceCode));
-                }
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
 
-            }
-        } catch (Exception e) {
-            logger.error("build StateMachineBuilder error,exception:{},stateMachineId:{}", e, stateMachineId);
-        }
-        return builder;
+    private StateMachineDefinition loadDefinition(Long organizationId, Long stateMachineId) {
+        return readOnlyTemplate.execute(status -> doLoadDefinition(organizationId, stateMachineId));
     }
 
-    private StateMachine<String, String> buildInstance(Long organizationId, String serviceCode, Long stateMachineId) {
-        StateMachineBuilder.Builder<String, String> builder = instanceCache.getBuilder(stateMachineId);
-        if (builder == null) {
-            builder = getBuilder(organizationId, serviceCode, stateMachineId);
-            logger.info("build StateMachineBuilder successful,stateMachineId:{}", stateMachineId);
-            instanceCache.putBuilder(stateMachineId, builder);
-        }
-        StateMachine<String, String> smInstance = builder.build();
-        smInstance.start();
-        return smInstance;
+    private StateMachineDefinition doLoadDefinition(Long organizationId, Long stateMachineId) {
+        StateMachineDTO stateMachine = stateMachineService.queryDeployForInstance(organizationId, stateMachineId);
+        Long initNodeId = nodeService.getInitNode(organizationId, stateMachineId);
+        TransitionTable table = TransitionTable.compile(stateMachineId, initNodeId, stateMachine.getNodes(), stateMachine.getTransforms());
+        List<StateMachineConfigVO> configs = configService.queryDeployByStateMachineId(organizationId, stateMachineId);
+        logger.info("load StateMachineDefinition successful,stateMachineId:{}", stateMachineId);
+        return StateMachineDefinition.build(table, stateMachine.getTransforms(), configs);
+    }
+
+    private StateMachineDefinition getDefinition(Long organizationId, Long stateMachineId) {
+        return instanceCache.getDefinition(stateMachineId, id -> loadDefinition(organizationId, id));
     }
 
     /**
@@ -118,17 +95,22 @@ public class MachineFactory {
      * @return
      */
     public ExecuteResult startInstance(Long organizationId, String serviceCode, Long stateMachineId, InputVO inputVO) {
-        StateMachine<String, String> instance = buildInstance(organizationId, serviceCode, stateMachineId);
-        //存入instanceId，以便执行guard和action
-        instance.getExtendedState().getVariables().put(INPUT_VO, inputVO);
+        StateMachineDefinition definition = getDefinition(organizationId, stateMachineId);
+        TransitionTable table = definition.getTable();
+        logger.info("stateMachine instance execute initialAction,organizationId:{},serviceCode:{}", organizationId, serviceCode);
         //执行初始转换
-        Long initTransformId = transformService.getInitTransform(organizationId, stateMachineId).getId();
-        instance.sendEvent(initTransformId.toString());
+        Long initTransformId = table.getInitTransformId();
+        if (initTransformId == null) {
+            throw new CommonException("error.initTransform.null");
+        }
+        Long targetNodeId = table.getTargetNodeId(table.getStartNodeId(), initTransformId);
+        ExecuteResult executeResult = fire(serviceCode, definition, initTransformId, targetNodeId, inputVO);
 
         //缓存实例
-        instanceCache.putInstance(serviceCode, stateMachineId, inputVO.getInstanceId(), instance);
-
-        return instance.getExtendedState().getVariables().get(EXECUTE_RESULT) == null ? new ExecuteResult(false, null, "触发事件失败") : (ExecuteResult) instance.getExtendedState().getVariables().get(EXECUTE_RESULT);
+        if (executeResult.getSuccess() && !isStateless(serviceCode)) {
+            instanceCache.putInstance(serviceCode, stateMachineId, inputVO.getInstanceId(), targetNodeId);
+        }
+        return executeResult;
     }
 
     /**
@@ -142,103 +124,228 @@ public class MachineFactory {
      */
     public ExecuteResult executeTransform(Long organizationId, String serviceCode, Long stateMachineId, Long currentStatusId, Long transformId, InputVO inputVO) {
         try {
-            Long instanceId = inputVO.getInstanceId();
-            //校验transformId是否合法
-            List<StateMachineTransformDTO> transforms = transformService.queryListByStatusIdByDeploy(organizationId, stateMachineId, currentStatusId);
-            if (transforms.stream().noneMatch(x -> x.getId().equals(transformId))) {
-                throw new CommonException("error.executeTransform.transformId.illegal");
-            }
-            //状态转节点
-            Long currentNodeId = nodeDeployMapper.getNodeDeployByStatusId(stateMachineId, currentStatusId).getId();
-
-            StateMachine<String, String> instance = instanceCache.getInstance(serviceCode, stateMachineId, instanceId);
-            if (instance == null) {
-                instance = buildInstance(organizationId, serviceCode, stateMachineId);
-                //恢复节点
-                String id = instance.getId();
-                instance.getStateMachineAccessor()
-                        .doWithAllRegions(access ->
-                                access.resetStateMachine(new DefaultStateMachineContext<>(currentNodeId.toString(), null, null, null, null, id)));
-                logger.info("restore stateMachine instance successful, stateMachineId:{}", stateMachineId);
-                instanceCache.putInstance(serviceCode, stateMachineId, instanceId, instance);
+            StateMachineDefinition definition = getDefinition(organizationId, stateMachineId);
+            TransitionTable table = definition.getTable();
+            Long currentNodeId = resolveCurrentNode(serviceCode, table, currentStatusId, transformId, inputVO.getInstanceId());
+            Long targetNodeId = table.getTargetNodeId(currentNodeId, transformId);
+            if (targetNodeId == null) {
+                return new ExecuteResult(false, table.getStatusId(currentNodeId), "触发事件失败");
             }
-            //存入instanceId，以便执行guard和action
-            instance.getExtendedState().getVariables().put(INPUT_VO, inputVO);
             //触发事件
-            instance.sendEvent(transformId.toString());
-
-            //节点转状态
-            Long statusId = nodeDeployMapper.getNodeDeployById(Long.parseLong(instance.getState().getId())).getStatusId();
-            Object executeResult = instance.getExtendedState().getVariables().get(EXECUTE_RESULT);
-            if (executeResult == null) {
-                executeResult = new ExecuteResult(false, statusId, "触发事件失败");
-            }
-            return (ExecuteResult) executeResult;
+            return fireAndCache(serviceCode, definition, transformId, currentNodeId, targetNodeId, inputVO);
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
             return new ExecuteResult(false, null, "执行转换失败");
         }
-
     }
 
     /**
-     * 初始化动作
+     * 批量状态转换，涉及的状态机定义每个只获取一次；对应服务支持批量回调时，
+     * 按批次一次调用执行多个实例的条件、验证与后置动作，否则逐个实例调用对应服务
      *
+     * @param organizationId
      * @param serviceCode
+     * @param executeTransformVOS
      * @return
      */
-    private Action<String, String> initialAction(Long organizationId, String serviceCode) {
-        return context ->
-                logger.info("stateMachine instance execute initialAction,organizationId:{},serviceCode:{}", organizationId, serviceCode);
-//                instanceService.postAction()
-
+    public List<ExecuteResult> executeTransforms(Long organizationId, String serviceCode, List<ExecuteTransformVO> executeTransformVOS) {
+        Map<Long, StateMachineDefinition> definitionMap = new HashMap<>();
+        executeTransformVOS.stream().map(ExecuteTransformVO::getStateMachineId).filter(Objects::nonNull).distinct().forEach(stateMachineId -> {
+            try {
+                definitionMap.put(stateMachineId, getDefinition(organizationId, stateMachineId));
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+            }
+        });
+        ExecuteResult[] executeResults = new ExecuteResult[executeTransformVOS.size()];
+        List<PendingTransform> pendingTransforms = new ArrayList<>(executeTransformVOS.size());
+        for (int i = 0; i < executeTransformVOS.size(); i++) {
+            ExecuteTransformVO executeTransformVO = executeTransformVOS.get(i);
+            InputVO inputVO = executeTransformVO.getInputVO() != null ? executeTransformVO.getInputVO() : new InputVO();
+            if (inputVO.getInstanceId() == null) {
+                inputVO.setInstanceId(executeTransformVO.getInstanceId());
+            }
+            Long transformId = executeTransformVO.getTransformId();
+            try {
+                StateMachineDefinition definition = definitionMap.get(executeTransformVO.getStateMachineId());
+                if (definition == null) {
+                    throw new CommonException("error.stateMachine.notExist");
+                }
+                TransitionTable table = definition.getTable();
+                Long currentNodeId = resolveCurrentNode(serviceCode, table, executeTransformVO.getCurrentStatusId(), transformId, inputVO.getInstanceId());
+                Long targetNodeId = table.getTargetNodeId(currentNodeId, transformId);
+                if (targetNodeId == null) {
+                    executeResults[i] = new ExecuteResult(false, table.getStatusId(currentNodeId), "触发事件失败");
+                    continue;
+                }
+                StateMachineTransformDTO transform = definition.getTransform(transformId);
+                if (transform == null) {
+                    throw new CommonException("error.stateMachineTransform.null");
+                }
+                pendingTransforms.add(new PendingTransform(i, definition, transform, currentNodeId, targetNodeId, inputVO));
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                executeResults[i] = new ExecuteResult(false, null, "执行转换失败");
+            }
+        }
+        if (!pendingTransforms.isEmpty() && callbackProtocolNegotiator.supportsBatch(serviceCode)) {
+            for (List<PendingTransform> batch : Lists.partition(pendingTransforms, batchCallbackMaxSize)) {
+                fireBatch(serviceCode, batch, executeResults);
+            }
+        } else {
+            for (PendingTransform pending : pendingTransforms) {
+                try {
+                    executeResults[pending.index] = fireAndCache(serviceCode, pending.definition, pending.transform.getId(), pending.currentNodeId, pending.targetNodeId, pending.inputVO);
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                    executeResults[pending.index] = new ExecuteResult(false, null, "执行转换失败");
+                }
+            }
+        }
+        return Arrays.asList(executeResults);
     }
 
     /**
-     * 转换动作
-     *
-     * @param serviceCode
-     * @return
+     * 一次调用对应服务执行一批实例的转换配置，并按结果缓存实例
      */
-    private Action<String, String> action(Long organizationId, String serviceCode) {
-        return context -> {
-            Long transformId = Long.parseLong(context.getEvent());
-            InputVO inputVO = (InputVO) context.getExtendedState().getVariables().get(INPUT_VO);
-            logger.info("stateMachine instance execute transform action,instanceId:{},transformId:{}", inputVO.getInstanceId(), transformId);
-            Boolean result = instanceService.postAction(organizationId, serviceCode, transformId, inputVO, context);
-            if (!result) {
-                throw new CommonException("error.stateMachine.action");
+    private void fireBatch(String serviceCode, List<PendingTransform> batch, ExecuteResult[] executeResults) {
+        List<ExecuteConfigBatchVO> executeConfigBatchVOS = new ArrayList<>(batch.size());
+        for (PendingTransform pending : batch) {
+            Long transformId = pending.transform.getId();
+            List<StateMachineConfigVO> configs = new ArrayList<>();
+            configs.addAll(pending.definition.getConfigs(transformId, ConfigType.CONDITION));
+            configs.addAll(pending.definition.getConfigs(transformId, ConfigType.VALIDATOR));
+            configs.addAll(pending.definition.getConfigs(transformId, ConfigType.ACTION));
+            pending.inputVO.setConfigs(configs);
+            ExecuteConfigBatchVO executeConfigBatchVO = new ExecuteConfigBatchVO();
+            executeConfigBatchVO.setTargetStatusId(pending.definition.getTable().getStatusId(pending.targetNodeId));
+            executeConfigBatchVO.setConditionStrategy(pending.transform.getConditionStrategy());
+            executeConfigBatchVO.setTransformType(pending.transform.getType());
+            executeConfigBatchVO.setInputVO(pending.inputVO);
+            executeConfigBatchVOS.add(executeConfigBatchVO);
+        }
+        logger.info("stateMachine instance execute transform batch,serviceCode:{},size:{}", serviceCode, batch.size());
+        List<ExecuteResult> batchResults = instanceService.executeConfigBatch(serviceCode, executeConfigBatchVOS);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingTransform pending = batch.get(i);
+            ExecuteResult executeResult = batchResults.get(i);
+            if (!executeResult.getSuccess()) {
+                logger.error("stateMachine instance execute transform error,serviceCode:{},instanceId:{},transformId:{}", serviceCode, pending.inputVO.getInstanceId(), pending.transform.getId());
             }
-        };
+            if (!isStateless(serviceCode)) {
+                instanceCache.putInstance(serviceCode, pending.definition.getTable().getStateMachineId(), pending.inputVO.getInstanceId(),
+                        executeResult.getSuccess() ? pending.targetNodeId : pending.currentNodeId);
+            }
+            executeResults[pending.index] = executeResult;
+        }
     }
 
     /**
-     * 转换出错动作
-     *
-     * @param serviceCode
-     * @return
+     * 校验转换是否合法，并获取实例的当前节点：无状态执行或缓存中不存在时，以当前状态恢复节点
      */
-    private Action<String, String> errorAction(Long organizationId, String serviceCode) {
-        return context -> {
-            Long transformId = Long.parseLong(context.getEvent());
-            InputVO inputVO = (InputVO) context.getExtendedState().getVariables().get(INPUT_VO);
-            logger.error("stateMachine instance execute transform error,organizationId:{},serviceCode:{},instanceId:{},transformId:{}", organizationId, serviceCode, inputVO.getInstanceId(), transformId);
-            // do something
-        };
+    private Long resolveCurrentNode(String serviceCode, TransitionTable table, Long currentStatusId, Long transformId, Long instanceId) {
+        //状态转节点
+        Long statusNodeId = table.getNodeId(currentStatusId);
+        if (statusNodeId == null) {
+            throw new CommonException("error.statusId.notFound");
+        }
+        //校验transformId是否合法
+        if (table.getTargetNodeId(statusNodeId, transformId) == null) {
+            throw new CommonException("error.executeTransform.transformId.illegal");
+        }
+        if (isStateless(serviceCode)) {
+            return statusNodeId;
+        }
+        Long currentNodeId = instanceCache.getInstance(serviceCode, table.getStateMachineId(), instanceId);
+        if (currentNodeId == null) {
+            //恢复节点
+            currentNodeId = statusNodeId;
+            logger.info("restore stateMachine instance successful, stateMachineId:{}", table.getStateMachineId());
+        }
+        return currentNodeId;
+    }
+
+    private ExecuteResult fireAndCache(String serviceCode, StateMachineDefinition definition, Long transformId, Long currentNodeId, Long targetNodeId, InputVO inputVO) {
+        ExecuteResult executeResult = fire(serviceCode, definition, transformId, targetNodeId, inputVO);
+        if (!isStateless(serviceCode)) {
+            instanceCache.putInstance(serviceCode, definition.getTable().getStateMachineId(), inputVO.getInstanceId(), executeResult.getSuccess() ? targetNodeId : currentNodeId);
+        }
+        return executeResult;
+    }
+
+    private boolean isStateless(String serviceCode) {
+        return Arrays.stream(statelessServices).anyMatch(x -> x.equals(serviceCode));
     }
 
     /**
-     * 条件验证是否转换
+     * 执行转换：先条件验证，通过后执行后置动作
      *
-     * @param serviceCode
+     * @param definition
+     * @param transformId
+     * @param targetNodeId
+     * @param inputVO
      * @return
      */
-    private Guard<String, String> guard(Long organizationId, String serviceCode) {
-        return context -> {
-            Long transformId = Long.parseLong(context.getEvent());
-            InputVO inputVO = (InputVO) context.getExtendedState().getVariables().get(INPUT_VO);
-            logger.info("stateMachine instance execute transform guard,instanceId:{},transformId:{}", inputVO.getInstanceId(), transformId);
-            return instanceService.validatorGuard(organizationId, serviceCode, transformId, inputVO, context);
-        };
+    private ExecuteResult fire(String serviceCode, StateMachineDefinition definition, Long transformId, Long targetNodeId, InputVO inputVO) {
+        StateMachineTransformDTO transform = definition.getTransform(transformId);
+        if (transform == null) {
+            throw new CommonException("error.stateMachineTransform.null");
+        }
+        if (callbackProtocolNegotiator.supportsCombined(serviceCode)) {
+            return fireCombined(serviceCode, definition, transform, targetNodeId, inputVO);
+        }
+        logger.info("stateMachine instance execute transform guard,instanceId:{},transformId:{}", inputVO.getInstanceId(), transformId);
+        ExecuteResult executeResult = instanceService.validatorGuard(serviceCode, transform,
+                definition.getConfigs(transformId, ConfigType.CONDITION),
+                definition.getConfigs(transformId, ConfigType.VALIDATOR), inputVO);
+        if (!executeResult.getSuccess()) {
+            return executeResult;
+        }
+        //节点转状态
+        Long targetStatusId = definition.getTable().getStatusId(targetNodeId);
+        logger.info("stateMachine instance execute transform action,instanceId:{},transformId:{}", inputVO.getInstanceId(), transformId);
+        executeResult = instanceService.postAction(serviceCode, transform, definition.getConfigs(transformId, ConfigType.ACTION), targetStatusId, inputVO);
+        if (!executeResult.getSuccess()) {
+            logger.error("stateMachine instance execute transform error,serviceCode:{},instanceId:{},transformId:{}", serviceCode, inputVO.getInstanceId(), transformId);
+        }
+        return executeResult;
+    }
+
+    /**
+     * 执行转换：条件、验证与后置动作在对应服务的一次调用中完成
+     */
+    private ExecuteResult fireCombined(String serviceCode, StateMachineDefinition definition, StateMachineTransformDTO transform, Long targetNodeId, InputVO inputVO) {
+        Long transformId = transform.getId();
+        Long targetStatusId = definition.getTable().getStatusId(targetNodeId);
+        logger.info("stateMachine instance execute transform all configs,instanceId:{},transformId:{}", inputVO.getInstanceId(), transformId);
+        ExecuteResult executeResult = instanceService.executeAllConfigs(serviceCode, transform,
+                definition.getConfigs(transformId, ConfigType.CONDITION),
+                definition.getConfigs(transformId, ConfigType.VALIDATOR),
+                definition.getConfigs(transformId, ConfigType.ACTION), targetStatusId, inputVO);
+        if (!executeResult.getSuccess()) {
+            logger.error("stateMachine instance execute transform error,serviceCode:{},instanceId:{},transformId:{}", serviceCode, inputVO.getInstanceId(), transformId);
+        }
+        return executeResult;
+    }
+
+    /**
+     * 批量状态转换中已校验通过、待调用对应服务的实例
+     */
+    private static final class PendingTransform {
+        private final int index;
+        private final StateMachineDefinition definition;
+        private final StateMachineTransformDTO transform;
+        private final Long currentNodeId;
+        private final Long targetNodeId;
+        private final InputVO inputVO;
+
+        private PendingTransform(int index, StateMachineDefinition definition, StateMachineTransformDTO transform, Long currentNodeId, Long targetNodeId, InputVO inputVO) {
+            this.index = index;
+            this.definition = definition;
+            this.transform = transform;
+            this.currentNodeId = currentNodeId;
+            this.targetNodeId = targetNodeId;
+            this.inputVO = inputVO;
+        }
     }
 }
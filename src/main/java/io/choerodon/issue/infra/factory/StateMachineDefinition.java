@@ -0,0 +1,79 @@
+package io.choerodon.issue.infra.factory;
+
+import io.choerodon.issue.api.vo.StateMachineConfigVO;
+import io.choerodon.issue.infra.dto.StateMachineTransformDTO;
+
+import java.util.*;
+
+/**
+ * 已发布状态机的完整定义：转换表、转换及按类型分组的配置，
+ * 只在发布相关操作时变化，缓存后转换执行时无需查询数据库
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public final class StateMachineDefinition {
+
+    private final TransitionTable table;
+    /**
+     * 转换id -> 转换
+     */
+    private final Map<Long, StateMachineTransformDTO> transformMap;
+    /**
+     * 转换id -> (配置类型 -> 配置列表)
+     */
+    private final Map<Long, Map<String, List<StateMachineConfigVO>>> configMap;
+
+    private StateMachineDefinition(TransitionTable table, Map<Long, StateMachineTransformDTO> transformMap,
+                                   Map<Long, Map<String, List<StateMachineConfigVO>>> configMap) {
+        this.table = table;
+        this.transformMap = transformMap;
+        this.configMap = configMap;
+    }
+
+    public static StateMachineDefinition build(TransitionTable table, List<StateMachineTransformDTO> transforms, List<StateMachineConfigVO> configs) {
+        Map<Long, StateMachineTransformDTO> transformMap = new HashMap<>();
+        if (transforms != null) {
+            transforms.forEach(transform -> transformMap.put(transform.getId(), transform));
+        }
+        Map<Long, Map<String, List<StateMachineConfigVO>>> configMap = new HashMap<>();
+        if (configs != null) {
+            for (StateMachineConfigVO config : configs) {
+                configMap.computeIfAbsent(config.getTransformId(), k -> new HashMap<>(4))
+                        .computeIfAbsent(config.getType(), k -> new ArrayList<>()).add(config);
+            }
+        }
+        configMap.values().forEach(typeMap -> typeMap.replaceAll((k, v) -> Collections.unmodifiableList(v)));
+        return new StateMachineDefinition(table, Collections.unmodifiableMap(transformMap), Collections.unmodifiableMap(configMap));
+    }
+
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    public StateMachineTransformDTO getTransform(Long transformId) {
+        return transformMap.get(transformId);
+    }
+
+    /**
+     * 获取转换某个类型的配置，没有配置时返回空列表
+     *
+     * @param transformId
+     * @param type        配置类型
+     * @return
+     */
+    public List<StateMachineConfigVO> getConfigs(Long transformId, String type) {
+        Map<String, List<StateMachineConfigVO>> typeMap = configMap.get(transformId);
+        if (typeMap == null) {
+            return Collections.emptyList();
+        }
+        return typeMap.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * 用于缓存的容量计算
+     */
+    public int size() {
+        return table.size() + configMap.size();
+    }
+}
@@ -0,0 +1,147 @@
+package io.choerodon.issue.infra.factory;
+
+import io.choerodon.issue.infra.dto.StateMachineNodeDTO;
+import io.choerodon.issue.infra.dto.StateMachineTransformDTO;
+import io.choerodon.issue.infra.enums.TransformType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已发布状态机编译后的不可变转换表：(节点id, 转换id) -> 目标节点id，
+ * 发布后首次使用时构建一次，由该状态机的所有实例共享
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public final class TransitionTable {
+
+    private final Long stateMachineId;
+    /**
+     * 开始节点id（圆圈）
+     */
+    private final Long startNodeId;
+    /**
+     * 初始转换id
+     */
+    private final Long initTransformId;
+    /**
+     * 节点id -> 状态id
+     */
+    private final Map<Long, Long> nodeStatusMap;
+    /**
+     * 状态id -> 节点id
+     */
+    private final Map<Long, Long> statusNodeMap;
+    /**
+     * 起始节点id -> (转换id -> 目标节点id)
+     */
+    private final Map<Long, Map<Long, Long>> nodeTransitionMap;
+    /**
+     * 【全部转换】的转换id -> 目标节点id，任意节点均可触发
+     */
+    private final Map<Long, Long> allTransitionMap;
+    /**
+     * 节点数+转换数，用于缓存的容量计算
+     */
+    private final int size;
+
+    private TransitionTable(Long stateMachineId, Long startNodeId, Long initTransformId, Map<Long, Long> nodeStatusMap, Map<Long, Long> statusNodeMap,
+                            Map<Long, Map<Long, Long>> nodeTransitionMap, Map<Long, Long> allTransitionMap, int size) {
+        this.stateMachineId = stateMachineId;
+        this.startNodeId = startNodeId;
+        this.initTransformId = initTransformId;
+        this.nodeStatusMap = nodeStatusMap;
+        this.statusNodeMap = statusNodeMap;
+        this.nodeTransitionMap = nodeTransitionMap;
+        this.allTransitionMap = allTransitionMap;
+        this.size = size;
+    }
+
+    /**
+     * 根据发布的节点与转换编译转换表
+     *
+     * @param stateMachineId
+     * @param startNodeId
+     * @param nodes
+     * @param transforms
+     * @return
+     */
+    public static TransitionTable compile(Long stateMachineId, Long startNodeId, List<StateMachineNodeDTO> nodes, List<StateMachineTransformDTO> transforms) {
+        Map<Long, Long> nodeStatusMap = new HashMap<>();
+        Map<Long, Long> statusNodeMap = new HashMap<>();
+        if (nodes != null) {
+            for (StateMachineNodeDTO node : nodes) {
+                nodeStatusMap.put(node.getId(), node.getStatusId());
+                if (node.getStatusId() != null) {
+                    statusNodeMap.put(node.getStatusId(), node.getId());
+                }
+            }
+        }
+        Map<Long, Map<Long, Long>> nodeTransitionMap = new HashMap<>();
+        Map<Long, Long> allTransitionMap = new HashMap<>();
+        Long initTransformId = null;
+        if (transforms != null) {
+            for (StateMachineTransformDTO transform : transforms) {
+                if (TransformType.INIT.equals(transform.getType())) {
+                    initTransformId = transform.getId();
+                }
+                if (TransformType.ALL.equals(transform.getType())) {
+                    allTransitionMap.put(transform.getId(), transform.getEndNodeId());
+                } else {
+                    nodeTransitionMap.computeIfAbsent(transform.getStartNodeId(), k -> new HashMap<>())
+                            .put(transform.getId(), transform.getEndNodeId());
+                }
+            }
+        }
+        nodeTransitionMap.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+        return new TransitionTable(stateMachineId, startNodeId, initTransformId,
+                Collections.unmodifiableMap(nodeStatusMap),
+                Collections.unmodifiableMap(statusNodeMap),
+                Collections.unmodifiableMap(nodeTransitionMap),
+                Collections.unmodifiableMap(allTransitionMap),
+                nodeStatusMap.size() + (transforms == null ? 0 : transforms.size()));
+    }
+
+    /**
+     * 获取转换的目标节点，转换不存在时返回null
+     *
+     * @param nodeId      当前节点id
+     * @param transformId 转换id
+     * @return
+     */
+    public Long getTargetNodeId(Long nodeId, Long transformId) {
+        if (nodeId == null || !nodeStatusMap.containsKey(nodeId)) {
+            return null;
+        }
+        Map<Long, Long> transitions = nodeTransitionMap.get(nodeId);
+        Long target = transitions == null ? null : transitions.get(transformId);
+        return target != null ? target : allTransitionMap.get(transformId);
+    }
+
+    public Long getStatusId(Long nodeId) {
+        return nodeStatusMap.get(nodeId);
+    }
+
+    public Long getNodeId(Long statusId) {
+        return statusNodeMap.get(statusId);
+    }
+
+    public Long getStateMachineId() {
+        return stateMachineId;
+    }
+
+    public Long getStartNodeId() {
+        return startNodeId;
+    }
+
+    public Long getInitTransformId() {
+        return initTransformId;
+    }
+
+    public int size() {
+        return size;
+    }
+}
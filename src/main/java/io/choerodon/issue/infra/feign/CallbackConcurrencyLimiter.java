@@ -0,0 +1,133 @@
+package io.choerodon.issue.infra.feign;
+
+import io.choerodon.core.exception.CommonException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 按服务隔离调用对应服务的并发：每个服务独立的并发上限，达到上限时直接失败，不占用工作线程等待，
+ * 上限按AIMD调整：调用成功且耗时未超过阈值时缓慢增加，失败或超过阈值时按比例减少
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+@Component
+public class CallbackConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(CallbackConcurrencyLimiter.class);
+    /**
+     * 拒绝原因：服务达到并发上限 / 异步转换的线程池与队列已满
+     */
+    public static final String REJECTED_BY_LIMIT = "limit";
+    public static final String REJECTED_BY_EXECUTOR = "executor";
+
+    @Value("${choerodon.statemachine.callback-limit.initial-limit:20}")
+    private int initialLimit;
+    @Value("${choerodon.statemachine.callback-limit.min-limit:2}")
+    private int minLimit;
+    @Value("${choerodon.statemachine.callback-limit.max-limit:50}")
+    private int maxLimit;
+    @Value("${choerodon.statemachine.callback-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+    @Value("${choerodon.statemachine.callback-limit.latency-threshold-millis:3000}")
+    private long latencyThresholdMillis;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Limit> limitMap = new ConcurrentHashMap<>();
+
+    /**
+     * 在服务的并发上限内执行调用，达到上限时抛出异常
+     *
+     * @param serviceCode
+     * @param call
+     * @return
+     */
+    public <T> T execute(String serviceCode, Supplier<T> call) {
+        Limit limit = limitMap.computeIfAbsent(serviceCode, this::createLimit);
+        if (!limit.tryAcquire()) {
+            recordRejected(serviceCode, REJECTED_BY_LIMIT);
+            logger.warn("callback concurrency limit reached, serviceCode:{}, limit:{}", serviceCode, limit.getLimit());
+            throw new CommonException("error.callback.concurrencyLimit");
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            limit.release(success && elapsed <= TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis));
+        }
+    }
+
+    /**
+     * 记录调用对应服务被拒绝的次数
+     *
+     * @param serviceCode
+     * @param reason      拒绝原因
+     */
+    public void recordRejected(String serviceCode, String reason) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("statemachine.callback.rejected", "service", serviceCode, "reason", reason).increment();
+        }
+    }
+
+    private Limit createLimit(String serviceCode) {
+        Limit limit = new Limit(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        if (meterRegistry != null) {
+            Tags tags = Tags.of("service", serviceCode);
+            Gauge.builder("statemachine.callback.limit", limit, Limit::getLimit).tags(tags).register(meterRegistry);
+            Gauge.builder("statemachine.callback.inflight", limit, Limit::getInFlight).tags(tags).register(meterRegistry);
+        }
+        return limit;
+    }
+
+    private final class Limit {
+        private double limit;
+        private int inFlight;
+
+        private Limit(double limit) {
+            this.limit = limit;
+        }
+
+        private synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        /**
+         * 释放并调整上限：正常时每个上限周期约增加1，异常时按比例减少
+         */
+        private synchronized void release(boolean healthy) {
+            inFlight--;
+            if (healthy) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            } else {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            }
+        }
+
+        private synchronized double getLimit() {
+            return limit;
+        }
+
+        private synchronized double getInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.choerodon.issue.infra.feign;
 
 import feign.RequestLine;
+import io.choerodon.issue.api.vo.ExecuteConfigBatchVO;
 import io.choerodon.issue.api.vo.ExecuteResult;
 import io.choerodon.issue.api.vo.InputVO;
 import io.choerodon.issue.infra.config.FeignConfiguration;
@@ -41,4 +42,14 @@ public interface CustomFeignClientAdaptor {
      */
     @RequestLine("POST")
     ResponseEntity<ExecuteResult> executeConfig(URI baseUri, InputVO inputVO);
+
+    /**
+     * 调用对应服务，批量执行多个实例的条件，验证，后置处理，按请求顺序返回每个实例的结果
+     *
+     * @param baseUri
+     * @param executeConfigBatchVOS
+     * @return
+     */
+    @RequestLine("POST")
+    ResponseEntity<List<ExecuteResult>> executeConfigBatch(URI baseUri, List<ExecuteConfigBatchVO> executeConfigBatchVOS);
 }
@@ -1,6 +1,7 @@
 package io.choerodon.issue.infra.feign.fallback;
 
 import io.choerodon.core.exception.CommonException;
+import io.choerodon.issue.api.vo.ExecuteConfigBatchVO;
 import io.choerodon.issue.api.vo.ExecuteResult;
 import io.choerodon.issue.api.vo.InputVO;
 import io.choerodon.issue.api.vo.payload.TransformInfo;
@@ -34,4 +35,9 @@ public class CustomFeignClientAdaptorFallBack implements CustomFeignClientAdapto
     public ResponseEntity<ExecuteResult> executeConfig(URI baseUri, InputVO inputVO) {
         throw new CommonException("error.customFeignClientAdaptor.filterTransformsByConfig");
     }
+
+    @Override
+    public ResponseEntity<List<ExecuteResult>> executeConfigBatch(URI baseUri, List<ExecuteConfigBatchVO> executeConfigBatchVOS) {
+        throw new CommonException("error.customFeignClientAdaptor.executeConfigBatch");
+    }
 }
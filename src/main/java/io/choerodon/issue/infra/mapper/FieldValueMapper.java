@@ -3,6 +3,7 @@ package io.choerodon.issue.infra.mapper;
 import io.choerodon.issue.infra.dto.FieldValueDTO;
 import io.choerodon.mybatis.common.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -14,6 +15,28 @@ public interface FieldValueMapper extends Mapper<FieldValueDTO> {
 
     List<FieldValueDTO> queryList(@Param("projectId") Long projectId, @Param("instanceId") Long instanceId, @Param("schemeCode") String schemeCode, @Param("fieldId") Long fieldId);
 
+    /**
+     * 批量查询多个实例的字段值，按实例id、字段id排序
+     *
+     * @param projectId
+     * @param instanceIds
+     * @return
+     */
+    List<FieldValueDTO> queryListByInstanceIds(@Param("projectId") Long projectId, @Param("instanceIds") List<Long> instanceIds);
+
+    /**
+     * 以游标方式逐行读取多个实例的字段值，按实例id、字段id排序
+     *
+     * @param projectId
+     * @param instanceIds
+     * @param resultHandler
+     */
+    void streamListByInstanceIds(@Param("projectId") Long projectId, @Param("instanceIds") List<Long> instanceIds, ResultHandler<FieldValueDTO> resultHandler);
+
+    List<Long> queryFieldIdsByProjectId(@Param("projectId") Long projectId);
+
+    List<Long> queryOptionIdsByProjectIdAndFieldType(@Param("projectId") Long projectId, @Param("fieldType") String fieldType);
+
     void batchInsert(@Param("projectId") Long projectId, @Param("instanceId") Long instanceId, @Param("schemeCode") String schemeCode, @Param("fieldValues") List<FieldValueDTO> fieldValues);
 
     void deleteByOptionIds(@Param("fieldId") Long fieldId, @Param("optionIds") List<Long> optionIds);
@@ -0,0 +1,36 @@
+package io.choerodon.issue.infra.mapper;
+
+import io.choerodon.issue.infra.dto.ObjectSchemeFieldContextDTO;
+import io.choerodon.issue.infra.dto.ObjectSchemeFieldDTO;
+import io.choerodon.mybatis.common.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * @author agent
+ * @since 2026/10/17
+ */
+public interface ObjectSchemeFieldContextMapper extends Mapper<ObjectSchemeFieldContextDTO> {
+
+    /**
+     * 批量创建字段上下文
+     *
+     * @param contexts
+     */
+    void batchInsert(@Param("contexts") List<ObjectSchemeFieldContextDTO> contexts);
+
+    /**
+     * 删除字段的所有上下文
+     *
+     * @param fieldId
+     */
+    void deleteByFieldId(@Param("fieldId") Long fieldId);
+
+    /**
+     * 查询还没有拆分上下文的字段，返回id与context
+     *
+     * @return
+     */
+    List<ObjectSchemeFieldDTO> queryFieldsWithoutContext();
+}
@@ -22,5 +22,7 @@ public interface ObjectSchemeFieldMapper extends Mapper<ObjectSchemeFieldDTO> {
 
     ObjectSchemeFieldDTO queryById(@Param("fieldId") Long fieldId);
 
+    List<ObjectSchemeFieldDTO> queryByIds(@Param("fieldIds") List<Long> fieldIds);
+
     ObjectSchemeFieldDTO queryByFieldCode(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("fieldCode") String fieldCode);
 }
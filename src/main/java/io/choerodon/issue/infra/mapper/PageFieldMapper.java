@@ -18,9 +18,11 @@ public interface PageFieldMapper extends Mapper<PageFieldDTO> {
      * @param projectId
      * @param pageCode
      * @param context
+     * @param contextSynced 字段上下文是否已拆分完成，未完成时按object_scheme_field.context匹配
      * @return
      */
-    List<PageFieldDTO> listQuery(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageCode") String pageCode, @Param("context") String context);
+    List<PageFieldDTO> listQuery(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageCode") String pageCode,
+                                 @Param("context") String context, @Param("contextSynced") boolean contextSynced);
 
     /**
      * 递减的情况下，查询较小的rank值
@@ -58,9 +60,11 @@ public interface PageFieldMapper extends Mapper<PageFieldDTO> {
      * 初始化页面字段：批量创建
      *
      * @param organizationId
+     * @param projectId
      * @param pageFields
+     * @param userId     创建人
      */
-    void batchInsert(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageFields") List<PageFieldDTO> pageFields);
+    void batchInsert(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageFields") List<PageFieldDTO> pageFields, @Param("userId") Long userId);
 
     /**
      * 复制组织层（页面字段）到项目层
@@ -76,4 +80,40 @@ public interface PageFieldMapper extends Mapper<PageFieldDTO> {
      * @param fieldId
      */
     void deleteByFieldId(@Param("fieldId") Long fieldId);
+
+    /**
+     * 批量获取多个页面各自最小的rank，返回pageId与rank
+     *
+     * @param organizationId
+     * @param projectId
+     * @param pageIds
+     * @return
+     */
+    List<PageFieldDTO> queryMinRankByPageIds(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageIds") List<Long> pageIds);
+
+    /**
+     * 查询存在过长rank的页面，返回organizationId、projectId与pageId
+     *
+     * @param maxLength
+     * @return
+     */
+    List<PageFieldDTO> queryLongRankPages(@Param("maxLength") Integer maxLength);
+
+    /**
+     * 按显示顺序查询页面下所有页面字段的id与rank，并锁定这些行
+     *
+     * @param organizationId
+     * @param projectId
+     * @param pageId
+     * @return
+     */
+    List<PageFieldDTO> queryRankByPageIdForUpdate(@Param("organizationId") Long organizationId, @Param("projectId") Long projectId, @Param("pageId") Long pageId);
+
+    /**
+     * 批量更新页面字段的rank
+     *
+     * @param pageFields
+     * @return
+     */
+    int batchUpdateRank(@Param("pageFields") List<PageFieldDTO> pageFields);
 }
@@ -14,4 +14,14 @@ public interface StateMachineConfigDraftMapper extends Mapper<StateMachineConfig
     StateMachineConfigDraftDTO queryById(@Param("organizationId") Long organizationId, @Param("id") Long id);
 
     List<StateMachineConfigDraftDTO> queryWithCodeInfo(@Param("organizationId") Long organizationId, @Param("transformId") Long transformId, @Param("type") String type);
+
+    /**
+     * 将状态机的发布配置整体复制到草稿表中，id保持一致
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @param userId         操作人id
+     * @return 复制的数量
+     */
+    int copyFromDeploy(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId, @Param("userId") Long userId);
 }
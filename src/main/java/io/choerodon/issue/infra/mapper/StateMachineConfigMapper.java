@@ -15,4 +15,16 @@ public interface StateMachineConfigMapper extends Mapper<StateMachineConfigDTO>
     List<StateMachineConfigDTO> queryWithCodeInfo(@Param("organizationId") Long organizationId, @Param("transformId") Long transformId, @Param("type") String type);
 
     List<StateMachineConfigDTO> queryWithCodeInfoByTransformIds(@Param("organizationId") Long organizationId, @Param("type") String type, @Param("transformIds") List<Long> transformIds);
+
+    List<StateMachineConfigDTO> queryWithCodeInfoByStateMachineId(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId);
+
+    /**
+     * 将状态机的草稿配置整体复制到发布表中，id保持一致
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @param userId         操作人id
+     * @return 复制的数量
+     */
+    int copyFromDraft(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId, @Param("userId") Long userId);
 }
@@ -15,6 +15,14 @@ public interface StateMachineNodeDraftMapper extends Mapper<StateMachineNodeDraf
 
     List<StateMachineNodeDraftDTO> selectByStateMachineId(@Param("stateMachineId") Long stateMachineId);
 
+    /**
+     * 查询组织下所有状态机的草稿节点，只包含节点id、状态机id、状态id、类型，按状态机id、节点id排序
+     *
+     * @param organizationId
+     * @return
+     */
+    List<StateMachineNodeDraftDTO> queryByOrganizationId(@Param("organizationId") Long organizationId);
+
     Long checkStateDelete(@Param("organizationId") Long organizationId, @Param("statusId") Long statusId);
 
     StateMachineNodeDraftDTO queryById(@Param("organizationId") Long organizationId, @Param("id") Long id);
@@ -31,4 +39,14 @@ public interface StateMachineNodeDraftMapper extends Mapper<StateMachineNodeDraf
      * 单独写更新，版本号不变，否则前端处理复杂
      */
     int updateAllStatusTransformId(@Param("organizationId") Long organizationId, @Param("id") Long id, @Param("allStatusTransformId") Long allStatusTransformId);
+
+    /**
+     * 将状态机的发布节点整体复制到草稿表中，id保持一致
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @param userId         操作人id
+     * @return 复制的数量
+     */
+    int copyFromDeploy(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId, @Param("userId") Long userId);
 }
@@ -18,6 +18,14 @@ public interface StateMachineNodeMapper extends Mapper<StateMachineNodeDTO> {
 
     List<StateMachineNodeDTO> selectByStateMachineId(@Param("stateMachineId") Long stateMachineId);
 
+    /**
+     * 查询组织下所有状态机的发布节点，只包含节点id、状态机id、状态id、类型，按状态机id、节点id排序
+     *
+     * @param organizationId
+     * @return
+     */
+    List<StateMachineNodeDTO> queryByOrganizationId(@Param("organizationId") Long organizationId);
+
     Long checkStateDelete(@Param("organizationId") Long organizationId, @Param("statusId") Long statusId);
 
     StateMachineNodeDTO queryById(@Param("organizationId") Long organizationId, @Param("id") Long id);
@@ -39,4 +47,13 @@ public interface StateMachineNodeMapper extends Mapper<StateMachineNodeDTO> {
 
     List<StateMachineNodeDTO> queryByStateMachineIds(@Param("organizationId") Long organizationId, @Param("stateMachineIds") List<Long> stateMachineIds);
 
+    /**
+     * 将状态机的草稿节点整体复制到发布表中，id保持一致
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @param userId         操作人id
+     * @return 复制的数量
+     */
+    int copyFromDraft(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId, @Param("userId") Long userId);
 }
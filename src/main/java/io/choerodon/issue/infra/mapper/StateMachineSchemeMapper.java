@@ -5,6 +5,7 @@ import io.choerodon.mybatis.common.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -62,4 +63,89 @@ public interface StateMachineSchemeMapper extends Mapper<StateMachineSchemeDTO>
      * @param deployStatus
      */
     void updateDeployStatus(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId, @Param("deployStatus") String deployStatus);
+
+    /**
+     * 开始分批发布：更新发布状态为doing，重置进度并保存待发送数据
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param batchCount     批次总数
+     * @param deployPayload  待发送数据
+     * @return
+     */
+    int startDeploy(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId,
+                    @Param("batchCount") Integer batchCount, @Param("deployPayload") String deployPayload);
+
+    String queryDeployPayload(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId);
+
+    /**
+     * 占用下一个待发送的批次，已发送批次数不是batchSent时（已被其他副本占用）不更新
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param batchSent      当前已发送的批次数
+     * @param sentTime       发送时间
+     * @return 更新的行数
+     */
+    int updateDeployBatchSent(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId,
+                              @Param("batchSent") Integer batchSent, @Param("sentTime") Date sentTime);
+
+    /**
+     * 占用超时批次的重发，已发送批次数或重发次数已变化时（批次已完成或已被其他副本重发）不更新
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param batchSent      当前已发送的批次数
+     * @param resend         当前批次已重发的次数
+     * @param sentTime       重发时间
+     * @return 更新的行数
+     */
+    int updateDeployBatchResend(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId,
+                                @Param("batchSent") Integer batchSent, @Param("resend") Integer resend,
+                                @Param("sentTime") Date sentTime);
+
+    /**
+     * 完成一个批次，已完成批次数不是batchDone时（重复回调）不更新
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param batchDone      当前已完成的批次数
+     * @param deployProgress 整体进度
+     * @return 更新的行数
+     */
+    int updateDeployBatchDone(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId,
+                              @Param("batchDone") Integer batchDone, @Param("deployProgress") Integer deployProgress);
+
+    /**
+     * 完成分批发布：更新发布状态为done并清空待发送数据
+     *
+     * @param organizationId
+     * @param schemeId
+     */
+    void finishDeploy(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId);
+
+    /**
+     * 发布失败：当前批次重发多次仍未完成时更新发布状态为failed并清空待发送数据
+     *
+     * @param organizationId
+     * @param schemeId
+     * @param batchSent      当前已发送的批次数
+     * @return 更新的行数
+     */
+    int failDeploy(@Param("organizationId") Long organizationId, @Param("schemeId") Long schemeId, @Param("batchSent") Integer batchSent);
+
+    /**
+     * 查询发布中断的方案：正在发布，且已发送的批次都已完成但还有批次未发送
+     *
+     * @return
+     */
+    List<StateMachineSchemeDTO> queryInterruptedDeploy();
+
+    /**
+     * 查询批次超时的方案：正在发布，且最近发送的批次在sentBefore之前发送但还未完成
+     *
+     * @param sentBefore 发送时间早于该时间的批次视为超时
+     * @return
+     */
+    List<StateMachineSchemeDTO> queryTimeoutDeploy(@Param("sentBefore") Date sentBefore);
 }
@@ -18,4 +18,14 @@ public interface StateMachineTransformDraftMapper extends Mapper<StateMachineTra
     int deleteByNodeId(Long nodeId);
 
     StateMachineTransformDraftDTO queryById(@Param("organizationId") Long organizationId, @Param("id") Long id);
+
+    /**
+     * 将状态机的发布转换整体复制到草稿表中，id保持一致
+     *
+     * @param organizationId
+     * @param stateMachineId
+     * @param userId         操作人id
+     * @return 复制的数量
+     */
+    int copyFromDeploy(@Param("organizationId") Long organizationId, @Param("stateMachineId") Long stateMachineId, @Param("userId") Long userId);
 }
@@ -1,7 +1,15 @@
 package io.choerodon.issue.infra.schedule;
 
+import io.choerodon.issue.app.service.ObjectSchemeFieldService;
+import io.choerodon.issue.app.service.PageFieldService;
+import io.choerodon.issue.app.service.StateMachineSchemeDeployService;
 import io.choerodon.issue.infra.cache.InstanceCache;
+import io.choerodon.issue.infra.dto.PageFieldDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -11,23 +19,63 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class ScheduledTask {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTask.class);
 
     @Autowired
     private InstanceCache instanceCache;
+    @Autowired
+    private StateMachineSchemeDeployService schemeDeployService;
+    @Autowired
+    private PageFieldService pageFieldService;
+    @Autowired
+    private ObjectSchemeFieldService objectSchemeFieldService;
 
     /**
-     * 每天凌晨清理所有实例数据
+     * 每个小时清理一次过期的状态机实例，实例按容量与访问时间逐步淘汰，不再每天凌晨全部清理
      */
-    @Scheduled(cron = "0 0 0 * * ?")
-    public void cleanAllInstances() {
-        instanceCache.cleanAllInstances();
+    @Scheduled(cron = "0 0 * * * ?")
+    public void cleanInstanceTask() {
+        instanceCache.cleanInstanceTask();
     }
 
     /**
-     * 每个小时清理一次状态机实例
+     * 继续发送中断的状态机方案发布批次
      */
-    @Scheduled(cron = "0 0 * * * ?")
-    public void cleanInstanceTask() {
-        instanceCache.cleanInstanceTask();
+    @Scheduled(fixedDelayString = "${choerodon.statemachine.scheme-deploy.resume-interval-millis:60000}")
+    public void resumeSchemeDeployTask() {
+        schemeDeployService.resumeInterruptedDeploys();
+    }
+
+    /**
+     * 重新分配存在过长rank的页面下的rank，每个页面在单独的事务中更新
+     */
+    @Scheduled(fixedDelayString = "${choerodon.page-field.rank.rebalance-interval-millis:600000}")
+    public void rebalancePageFieldRankTask() {
+        for (PageFieldDTO page : pageFieldService.queryLongRankPages()) {
+            pageFieldService.rebalanceRank(page.getOrganizationId(), page.getProjectId(), page.getPageId());
+        }
+    }
+
+    /**
+     * 启动完成时拆分初始化数据导入的字段的上下文。ApplicationReadyEvent在web容器启动之后发布，
+     * 此时可能已经开始处理请求，完成前页面字段仍按object_scheme_field.context过滤上下文；
+     * 失败时只记录日志，不影响启动，由定时任务重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncFieldContextOnStartup() {
+        try {
+            objectSchemeFieldService.syncContexts();
+        } catch (Exception e) {
+            logger.error("sync object scheme field context on startup error", e);
+        }
+    }
+
+    /**
+     * 定期拆分之后重新导入的初始化数据的字段上下文
+     */
+    @Scheduled(initialDelayString = "${choerodon.object-scheme-field.context-sync-interval-millis:3600000}",
+            fixedDelayString = "${choerodon.object-scheme-field.context-sync-interval-millis:3600000}")
+    public void syncFieldContextTask() {
+        objectSchemeFieldService.syncContexts();
     }
 }
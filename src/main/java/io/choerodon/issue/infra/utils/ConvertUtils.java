@@ -1,17 +1,18 @@
 package io.choerodon.issue.infra.utils;
 
-import io.choerodon.issue.api.vo.StateMachineSchemeConfigVO;
-import io.choerodon.issue.api.vo.StateMachineSchemeVO;
-import io.choerodon.issue.infra.dto.ProjectConfigDTO;
-import io.choerodon.issue.infra.dto.StateMachineSchemeDTO;
-import io.choerodon.issue.infra.dto.StateMachineSchemeConfigDTO;
+import io.choerodon.issue.api.vo.*;
+import io.choerodon.issue.api.vo.payload.TransformInfo;
+import io.choerodon.issue.api.vo.payload.TransformVO;
+import io.choerodon.issue.infra.dto.*;
 import io.choerodon.issue.infra.feign.vo.ProjectDTO;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * @author peng.jiang@hand-china.com
@@ -53,4 +54,229 @@ public class ConvertUtils {
         return list;
     }
 
+    /**
+     * 以下为热点路径上的DTO/VO转换，手写字段拷贝代替ModelMapper的反射匹配，
+     * 拷贝的字段与ModelMapper严格匹配策略下同名映射的字段一致
+     */
+    public static StatusVO convertStatusToVO(final StatusDTO status) {
+        if (status == null) {
+            return null;
+        }
+        StatusVO statusVO = new StatusVO();
+        statusVO.setId(status.getId());
+        statusVO.setName(status.getName());
+        statusVO.setCode(status.getCode());
+        statusVO.setDescription(status.getDescription());
+        statusVO.setType(status.getType());
+        statusVO.setOrganizationId(status.getOrganizationId());
+        statusVO.setObjectVersionNumber(status.getObjectVersionNumber());
+        return statusVO;
+    }
+
+    public static List<StatusVO> convertStatusesToVOS(final List<StatusDTO> statuses) {
+        return convertList(statuses, ConvertUtils::convertStatusToVO);
+    }
+
+    public static TransformVO convertTransformToVO(final StateMachineTransformDTO transform) {
+        TransformVO transformVO = new TransformVO();
+        transformVO.setId(transform.getId());
+        transformVO.setName(transform.getName());
+        transformVO.setStateMachineId(transform.getStateMachineId());
+        transformVO.setStartNodeId(transform.getStartNodeId());
+        transformVO.setEndStatusId(transform.getEndStatusId());
+        transformVO.setType(transform.getType());
+        return transformVO;
+    }
+
+    public static List<TransformVO> convertTransformsToVOS(final List<StateMachineTransformDTO> transforms) {
+        return convertList(transforms, ConvertUtils::convertTransformToVO);
+    }
+
+    public static TransformInfo convertTransformToInfo(final StateMachineTransformDTO transform) {
+        TransformInfo transformInfo = new TransformInfo();
+        transformInfo.setId(transform.getId());
+        transformInfo.setName(transform.getName());
+        transformInfo.setDescription(transform.getDescription());
+        transformInfo.setStateMachineId(transform.getStateMachineId());
+        transformInfo.setEndStatusId(transform.getEndStatusId());
+        transformInfo.setUrl(transform.getUrl());
+        transformInfo.setType(transform.getType());
+        transformInfo.setStyle(transform.getStyle());
+        transformInfo.setConditionStrategy(transform.getConditionStrategy());
+        transformInfo.setOrganizationId(transform.getOrganizationId());
+        transformInfo.setObjectVersionNumber(transform.getObjectVersionNumber());
+        return transformInfo;
+    }
+
+    public static TransformVO convertTransformInfoToVO(final TransformInfo transformInfo) {
+        TransformVO transformVO = new TransformVO();
+        transformVO.setId(transformInfo.getId());
+        transformVO.setName(transformInfo.getName());
+        transformVO.setStateMachineId(transformInfo.getStateMachineId());
+        transformVO.setEndStatusId(transformInfo.getEndStatusId());
+        transformVO.setType(transformInfo.getType());
+        return transformVO;
+    }
+
+    public static List<TransformVO> convertTransformInfosToVOS(final List<TransformInfo> transformInfos) {
+        return convertList(transformInfos, ConvertUtils::convertTransformInfoToVO);
+    }
+
+    public static StateMachineConfigVO convertConfigToVO(final StateMachineConfigDTO config) {
+        StateMachineConfigVO configVO = new StateMachineConfigVO();
+        configVO.setId(config.getId());
+        configVO.setTransformId(config.getTransformId());
+        configVO.setStateMachineId(config.getStateMachineId());
+        configVO.setCode(config.getCode());
+        configVO.setType(config.getType());
+        configVO.setOrganizationId(config.getOrganizationId());
+        configVO.setCodeName(config.getCodeName());
+        configVO.setCodeDescription(config.getCodeDescription());
+        return configVO;
+    }
+
+    public static List<StateMachineConfigVO> convertConfigsToVOS(final List<StateMachineConfigDTO> configs) {
+        return convertList(configs, ConvertUtils::convertConfigToVO);
+    }
+
+    public static PageFieldViewVO convertPageFieldToViewVO(final PageFieldDTO pageField) {
+        PageFieldViewVO view = new PageFieldViewVO();
+        view.setId(pageField.getId());
+        view.setFieldId(pageField.getFieldId());
+        view.setFieldName(pageField.getFieldName());
+        view.setFieldCode(pageField.getFieldCode());
+        view.setFieldType(pageField.getFieldType());
+        view.setDefaultValue(pageField.getDefaultValue());
+        view.setExtraConfig(pageField.getExtraConfig());
+        view.setDisplay(pageField.getDisplay());
+        view.setSystem(pageField.getSystem());
+        view.setRequired(pageField.getRequired());
+        view.setRank(pageField.getRank());
+        view.setProjectId(pageField.getProjectId());
+        view.setOrganizationId(pageField.getOrganizationId());
+        return view;
+    }
+
+    public static List<PageFieldViewVO> convertPageFieldsToViewVOS(final List<PageFieldDTO> pageFields) {
+        return convertList(pageFields, ConvertUtils::convertPageFieldToViewVO);
+    }
+
+    /**
+     * 复制缓存的字段，字段选项列表只读共用
+     */
+    public static PageFieldViewVO copyPageFieldView(final PageFieldViewVO source) {
+        PageFieldViewVO view = new PageFieldViewVO();
+        view.setId(source.getId());
+        view.setFieldId(source.getFieldId());
+        view.setFieldName(source.getFieldName());
+        view.setFieldCode(source.getFieldCode());
+        view.setFieldType(source.getFieldType());
+        view.setDefaultValue(source.getDefaultValue());
+        view.setDefaultValueObj(source.getDefaultValueObj());
+        view.setExtraConfig(source.getExtraConfig());
+        view.setDisplay(source.getDisplay());
+        view.setSystem(source.getSystem());
+        view.setRequired(source.getRequired());
+        view.setRank(source.getRank());
+        view.setProjectId(source.getProjectId());
+        view.setOrganizationId(source.getOrganizationId());
+        view.setFieldOptions(source.getFieldOptions());
+        return view;
+    }
+
+    public static StatusVO copyStatus(final StatusVO source) {
+        StatusVO statusVO = new StatusVO();
+        statusVO.setId(source.getId());
+        statusVO.setName(source.getName());
+        statusVO.setCode(source.getCode());
+        statusVO.setDescription(source.getDescription());
+        statusVO.setType(source.getType());
+        statusVO.setOrganizationId(source.getOrganizationId());
+        statusVO.setObjectVersionNumber(source.getObjectVersionNumber());
+        statusVO.setCanDelete(source.getCanDelete());
+        return statusVO;
+    }
+
+    public static StateMachineWithStatusVO copyStateMachineWithStatus(final StateMachineWithStatusVO source) {
+        StateMachineWithStatusVO stateMachine = new StateMachineWithStatusVO(source.getId(), source.getName(),
+                source.getDescription(), source.getStatus(), source.getOrganizationId());
+        if (source.getStatusVOS() != null) {
+            stateMachine.setStatusVOS(convertList(source.getStatusVOS(), ConvertUtils::copyStatus));
+        }
+        return stateMachine;
+    }
+
+    public static List<StateMachineWithStatusVO> copyStateMachinesWithStatus(final List<StateMachineWithStatusVO> sources) {
+        return convertList(sources, ConvertUtils::copyStateMachineWithStatus);
+    }
+
+    public static TransformVO copyTransform(final TransformVO source) {
+        TransformVO transformVO = new TransformVO();
+        transformVO.setId(source.getId());
+        transformVO.setName(source.getName());
+        transformVO.setStateMachineId(source.getStateMachineId());
+        transformVO.setStartNodeId(source.getStartNodeId());
+        transformVO.setEndStatusId(source.getEndStatusId());
+        transformVO.setType(source.getType());
+        transformVO.setStatusType(source.getStatusType());
+        if (source.getStatusVO() != null) {
+            transformVO.setStatusVO(copyStatus(source.getStatusVO()));
+        }
+        return transformVO;
+    }
+
+    /**
+     * 拷贝【问题类型id -> 状态id -> 转换列表】，值为null的项保留
+     */
+    public static Map<Long, Map<Long, List<TransformVO>>> copyTransformsMap(final Map<Long, Map<Long, List<TransformVO>>> source) {
+        Map<Long, Map<Long, List<TransformVO>>> transformsMap = new HashMap<>(source.size());
+        source.forEach((issueTypeId, statusMap) -> {
+            if (statusMap == null) {
+                transformsMap.put(issueTypeId, null);
+                return;
+            }
+            Map<Long, List<TransformVO>> copyStatusMap = new HashMap<>(statusMap.size());
+            statusMap.forEach((statusId, transforms) -> copyStatusMap.put(statusId, transforms == null ? null : convertList(transforms, ConvertUtils::copyTransform)));
+            transformsMap.put(issueTypeId, copyStatusMap);
+        });
+        return transformsMap;
+    }
+
+    public static FieldValueVO convertFieldValueToVO(final FieldValueDTO fieldValue) {
+        FieldValueVO fieldValueVO = new FieldValueVO();
+        fieldValueVO.setId(fieldValue.getId());
+        fieldValueVO.setInstanceId(fieldValue.getInstanceId());
+        fieldValueVO.setFieldId(fieldValue.getFieldId());
+        fieldValueVO.setFieldType(fieldValue.getFieldType());
+        fieldValueVO.setOptionId(fieldValue.getOptionId());
+        fieldValueVO.setOptionValue(fieldValue.getOptionValue());
+        fieldValueVO.setStringValue(fieldValue.getStringValue());
+        fieldValueVO.setNumberValue(fieldValue.getNumberValue());
+        fieldValueVO.setTextValue(fieldValue.getTextValue());
+        fieldValueVO.setDateValue(fieldValue.getDateValue());
+        fieldValueVO.setProjectId(fieldValue.getProjectId());
+        fieldValueVO.setSchemeCode(fieldValue.getSchemeCode());
+        fieldValueVO.setObjectVersionNumber(fieldValue.getObjectVersionNumber());
+        fieldValueVO.setCreatedBy(fieldValue.getCreatedBy());
+        fieldValueVO.setCreationDate(fieldValue.getCreationDate());
+        fieldValueVO.setLastUpdatedBy(fieldValue.getLastUpdatedBy());
+        fieldValueVO.setLastUpdateDate(fieldValue.getLastUpdateDate());
+        return fieldValueVO;
+    }
+
+    public static List<FieldValueVO> convertFieldValuesToVOS(final List<FieldValueDTO> fieldValues) {
+        return convertList(fieldValues, ConvertUtils::convertFieldValueToVO);
+    }
+
+    private static <S, T> List<T> convertList(final List<S> sources, final Function<S, T> converter) {
+        if (sources == null) {
+            return new ArrayList<>();
+        }
+        List<T> list = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            list.add(converter.apply(source));
+        }
+        return list;
+    }
+
 }
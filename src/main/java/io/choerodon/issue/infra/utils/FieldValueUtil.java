@@ -7,17 +7,16 @@ import io.choerodon.issue.api.vo.FieldValueVO;
 import io.choerodon.issue.api.vo.ObjectSchemeFieldDetailVO;
 import io.choerodon.issue.api.vo.PageFieldViewVO;
 import io.choerodon.issue.app.service.FieldDataLogService;
+import io.choerodon.issue.infra.cache.PageFieldLayoutCache;
+import io.choerodon.issue.infra.cache.UserCache;
 import io.choerodon.issue.infra.dto.FieldOptionDTO;
 import io.choerodon.issue.infra.dto.FieldValueDTO;
 import io.choerodon.issue.infra.dto.PageFieldDTO;
 import io.choerodon.issue.infra.enums.FieldType;
 import io.choerodon.issue.infra.enums.ObjectSchemeCode;
-import io.choerodon.issue.infra.feign.IamFeignClient;
 import io.choerodon.issue.infra.feign.vo.UserVO;
 import io.choerodon.issue.infra.mapper.FieldOptionMapper;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,10 +26,8 @@ import java.util.stream.Collectors;
  */
 public class FieldValueUtil {
 
-    private static final String DATETIME_FORMAT = "yyyy-MM-dd hh:mm:ss";
-    private static final String DATE_FORMAT = "yyyy-MM-dd";
-    private static final String TIME_FORMAT = "HH:mm:ss";
     private static final String DATE_VALUE = "date_value";
+    private static volatile UserCache userCache;
 
     /**
      * 获取人员信息
@@ -39,12 +36,17 @@ public class FieldValueUtil {
      * @return
      */
     public static Map<Long, UserVO> handleUserMap(List<Long> userIds) {
-        Map<Long, UserVO> map = new HashMap<>(userIds.size());
-        IamFeignClient iamFeignClient = SpringBeanUtil.getBean(IamFeignClient.class);
-        if (!userIds.isEmpty()) {
-            map = iamFeignClient.listUsersByIds(userIds.toArray(new Long[userIds.size()]), false).getBody().stream().collect(Collectors.toMap(UserVO::getId, x -> x));
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
         }
-        return map;
+        return getUserCache().listUsers(userIds);
+    }
+
+    private static UserCache getUserCache() {
+        if (userCache == null) {
+            userCache = SpringBeanUtil.getBean(UserCache.class);
+        }
+        return userCache;
     }
 
     /**
@@ -58,11 +60,13 @@ public class FieldValueUtil {
         Object valueStr = null;
         Object value = null;
         if (values != null && !values.isEmpty()) {
-            Long[] longValues = new Long[values.size()];
             switch (fieldType) {
                 case FieldType.CHECKBOX:
                 case FieldType.MULTIPLE:
-                    values.stream().map(FieldValueVO::getOptionId).collect(Collectors.toList()).toArray(longValues);
+                    Long[] longValues = new Long[values.size()];
+                    for (int i = 0; i < longValues.length; i++) {
+                        longValues[i] = values.get(i).getOptionId();
+                    }
                     value = longValues;
                     valueStr = values.stream().map(FieldValueVO::getOptionValue).collect(Collectors.joining(", "));
                     break;
@@ -74,23 +78,20 @@ public class FieldValueUtil {
                     break;
                 case FieldType.DATETIME:
                     value = values.get(0).getDateValue();
-                    DateFormat dff = new SimpleDateFormat(DATETIME_FORMAT);
                     if (value != null) {
-                        valueStr = dff.format(value);
+                        valueStr = FieldValueFormatUtil.formatDateTime((Date) value);
                     }
                     break;
                 case FieldType.DATE:
                     value = values.get(0).getDateValue();
-                    DateFormat dfff = new SimpleDateFormat(DATE_FORMAT);
                     if (value != null) {
-                        valueStr = dfff.format(value);
+                        valueStr = FieldValueFormatUtil.formatDate((Date) value);
                     }
                     break;
                 case FieldType.TIME:
                     value = values.get(0).getDateValue();
-                    DateFormat df = new SimpleDateFormat(TIME_FORMAT);
                     if (value != null) {
-                        valueStr = df.format(value);
+                        valueStr = FieldValueFormatUtil.formatTime((Date) value);
                     }
                     break;
                 case FieldType.INPUT:
@@ -103,7 +104,7 @@ public class FieldValueUtil {
                     if (view.getExtraConfig() != null && view.getExtraConfig()) {
                         valueStr = value.toString();
                     } else {
-                        valueStr = value.toString().split("\\.")[0];
+                        valueStr = FieldValueFormatUtil.truncateDecimal(value.toString());
                         value = valueStr;
                     }
                     break;
@@ -138,8 +139,6 @@ public class FieldValueUtil {
      * @param pageFieldViews
      */
     public static void handleDefaultValue(List<PageFieldViewVO> pageFieldViews) {
-        Map<Long, UserVO> userMap = handleUserMap(pageFieldViews.stream().filter(x -> x.getFieldType().equals(FieldType.MEMBER) && x.getDefaultValue() != null && !"".equals(String.valueOf(x.getDefaultValue()).trim()))
-                .map(x -> Long.parseLong(String.valueOf(x.getDefaultValue()))).collect(Collectors.toList()));
         for (PageFieldViewVO view : pageFieldViews) {
             switch (view.getFieldType()) {
                 case FieldType.CHECKBOX:
@@ -163,14 +162,12 @@ public class FieldValueUtil {
                 case FieldType.NUMBER:
                     //如果勾选了是否小数
                     if (view.getExtraConfig() != null && !view.getExtraConfig()) {
-                        view.setDefaultValue(view.getDefaultValue().toString().split("\\.")[0]);
+                        view.setDefaultValue(FieldValueFormatUtil.truncateDecimal(view.getDefaultValue().toString()));
                     }
                     break;
                 case FieldType.MEMBER:
                     if (view.getDefaultValue() != null && !"".equals(view.getDefaultValue())) {
-                        Long defaultValue = Long.valueOf(String.valueOf(view.getDefaultValue()));
-                        view.setDefaultValue(defaultValue);
-                        view.setDefaultValueObj(userMap.getOrDefault(defaultValue, new UserVO()));
+                        view.setDefaultValue(Long.valueOf(String.valueOf(view.getDefaultValue())));
                     }
                     break;
                 case FieldType.INPUT:
@@ -182,6 +179,20 @@ public class FieldValueUtil {
         }
     }
 
+    /**
+     * 填充人员类型字段默认值对应的用户信息，页面字段布局缓存中不包含用户信息
+     *
+     * @param pageFieldViews
+     */
+    public static void handleDefaultValueUser(List<PageFieldViewVO> pageFieldViews) {
+        List<PageFieldViewVO> memberViews = pageFieldViews.stream().filter(PageFieldLayoutCache::isMemberDefault).collect(Collectors.toList());
+        if (memberViews.isEmpty()) {
+            return;
+        }
+        Map<Long, UserVO> userMap = handleUserMap(memberViews.stream().map(x -> (Long) x.getDefaultValue()).distinct().collect(Collectors.toList()));
+        memberViews.forEach(view -> view.setDefaultValueObj(userMap.getOrDefault((Long) view.getDefaultValue(), new UserVO())));
+    }
+
     /**
      * 处理默认值多选id
      *
@@ -220,12 +231,11 @@ public class FieldValueUtil {
             case FieldType.TEXT:
                 break;
             case FieldType.MEMBER:
-                IamFeignClient iamFeignClient = SpringBeanUtil.getBean(IamFeignClient.class);
                 if (fieldDetail.getDefaultValue() != null && !"".equals(fieldDetail.getDefaultValue())) {
                     Long defaultValue = Long.valueOf(String.valueOf(fieldDetail.getDefaultValue()));
-                    List<UserVO> list = iamFeignClient.listUsersByIds(Arrays.asList(defaultValue).toArray(new Long[1]), false).getBody();
-                    if (!list.isEmpty()) {
-                        fieldDetail.setDefaultValueObj(list.get(0));
+                    UserVO user = getUserCache().getUser(defaultValue);
+                    if (user != null) {
+                        fieldDetail.setDefaultValueObj(user);
                     }
                 }
                 break;
@@ -247,8 +257,7 @@ public class FieldValueUtil {
         //处理默认当前时间
         if (fieldType.equals(FieldType.DATETIME) || fieldType.equals(FieldType.TIME)) {
             if (create.getExtraConfig() != null && create.getExtraConfig()) {
-                DateFormat df = new SimpleDateFormat(DATETIME_FORMAT);
-                defaultValue = df.format(new Date());
+                defaultValue = FieldValueFormatUtil.formatDateTime(new Date());
             }
         }
         if (defaultValue != null && !defaultValue.equals("")) {
@@ -273,9 +282,7 @@ public class FieldValueUtil {
                     case FieldType.DATETIME:
                     case FieldType.DATE:
                     case FieldType.TIME:
-                        DateFormat df = new SimpleDateFormat(DATETIME_FORMAT);
-                        Date dateValue = df.parse(defaultValue);
-                        fieldValue.setDateValue(dateValue);
+                        fieldValue.setDateValue(FieldValueFormatUtil.parseDateTime(defaultValue));
                         fieldValues.add(fieldValue);
                         break;
                     case FieldType.INPUT:
@@ -331,9 +338,7 @@ public class FieldValueUtil {
                     case FieldType.DATETIME:
                     case FieldType.DATE:
                     case FieldType.TIME:
-                        DateFormat df = new SimpleDateFormat(DATETIME_FORMAT);
-                        Date dateValue = df.parse(value.toString());
-                        fieldValue.setDateValue(dateValue);
+                        fieldValue.setDateValue(FieldValueFormatUtil.parseDateTime(value.toString()));
                         fieldValues.add(fieldValue);
                         break;
                     case FieldType.INPUT:
@@ -429,30 +434,20 @@ public class FieldValueUtil {
                     }
                     break;
                 case FieldType.DATETIME:
-                    DateFormat df1 = new SimpleDateFormat(DATETIME_FORMAT);
+                case FieldType.TIME:
                     if (!oldFieldValues.isEmpty()) {
-                        create.setOldString(df1.format(oldFieldValues.get(0).getDateValue()));
+                        create.setOldString(FieldValueFormatUtil.formatDateTime(oldFieldValues.get(0).getDateValue()));
                     }
                     if (!newFieldValues.isEmpty()) {
-                        create.setNewString(df1.format(newFieldValues.get(0).getDateValue()));
+                        create.setNewString(FieldValueFormatUtil.formatDateTime(newFieldValues.get(0).getDateValue()));
                     }
                     break;
                 case FieldType.DATE:
-                    DateFormat df3 = new SimpleDateFormat(DATE_FORMAT);
-                    if (!oldFieldValues.isEmpty()) {
-                        create.setOldString(df3.format(oldFieldValues.get(0).getDateValue()));
-                    }
-                    if (!newFieldValues.isEmpty()) {
-                        create.setNewString(df3.format(newFieldValues.get(0).getDateValue()));
-                    }
-                    break;
-                case FieldType.TIME:
-                    DateFormat df2 = new SimpleDateFormat(DATETIME_FORMAT);
                     if (!oldFieldValues.isEmpty()) {
-                        create.setOldString(df2.format(oldFieldValues.get(0).getDateValue()));
+                        create.setOldString(FieldValueFormatUtil.formatDate(oldFieldValues.get(0).getDateValue()));
                     }
                     if (!newFieldValues.isEmpty()) {
-                        create.setNewString(df2.format(newFieldValues.get(0).getDateValue()));
+                        create.setNewString(FieldValueFormatUtil.formatDate(newFieldValues.get(0).getDateValue()));
                     }
                     break;
                 case FieldType.INPUT:
@@ -1,25 +1,71 @@
 package io.choerodon.issue.infra.utils;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import io.choerodon.core.exception.CommonException;
 import io.choerodon.issue.infra.feign.IamFeignClient;
 import io.choerodon.issue.infra.feign.vo.ProjectDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import javax.annotation.PostConstruct;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author shinan.chen
  * @date 2018/9/7
- * 通过projectId获取organizationId
+ * 通过projectId获取organizationId，项目信息缓存在有界的本地缓存中，写入后定时刷新；
+ * 组织的第一个请求到达时一次性预加载该组织的所有项目
  */
 @Component
 public class ProjectUtil {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectUtil.class);
+
     @Autowired
     private IamFeignClient iamFeignClient;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    @Value("${choerodon.iam.project-cache.max-size:10000}")
+    private long maxSize;
+    @Value("${choerodon.iam.project-cache.refresh-after-write-minutes:10}")
+    private long refreshAfterWriteMinutes;
+    @Value("${choerodon.iam.project-cache.expire-after-write-minutes:60}")
+    private long expireAfterWriteMinutes;
+
+    /**
+     * 项目id -> 项目，同一个项目的并发加载只查询一次
+     */
+    private LoadingCache<Long, ProjectDTO> projectCache;
+
+    /**
+     * 已经预加载过项目的组织id
+     */
+    private final Set<Long> preloadOrganizationIds = ConcurrentHashMap.newKeySet();
 
-    protected static final Map<Long, ProjectDTO> map = new HashMap<>();
+    @PostConstruct
+    public void init() {
+        //刷新在触发的请求线程中执行，保证feign调用带有当前请求的认证信息
+        projectCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfterWriteMinutes, TimeUnit.MINUTES)
+                .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+                .executor(Runnable::run)
+                .recordStats()
+                .build(this::loadProject);
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, projectCache, "iam.project");
+        }
+    }
 
     public Long getOrganizationId(Long projectId) {
         return queryProject(projectId).getOrganizationId();
@@ -34,17 +80,30 @@ public class ProjectUtil {
     }
 
     private ProjectDTO queryProject(Long projectId) {
-        ProjectDTO projectVO = map.get(projectId);
-        if (projectVO != null) {
-            return projectVO;
-        } else {
-            projectVO = iamFeignClient.queryProject(projectId).getBody();
-            if (projectVO != null) {
-                map.put(projectId, projectVO);
-                return projectVO;
-            } else {
-                throw new CommonException("error.queryProject.notFound");
-            }
+        ProjectDTO project = projectCache.get(projectId);
+        preloadOrganization(project.getOrganizationId());
+        return project;
+    }
+
+    private ProjectDTO loadProject(Long projectId) {
+        ProjectDTO project = iamFeignClient.queryProject(projectId).getBody();
+        if (project == null) {
+            throw new CommonException("error.queryProject.notFound");
+        }
+        return project;
+    }
+
+    private void preloadOrganization(Long organizationId) {
+        if (organizationId == null || preloadOrganizationIds.contains(organizationId) || !preloadOrganizationIds.add(organizationId)) {
+            return;
+        }
+        try {
+            List<ProjectDTO> projects = iamFeignClient.queryProjectsByOrgId(organizationId, 1, 0).getBody().getList();
+            Map<Long, ProjectDTO> projectMap = projects.stream().collect(Collectors.toMap(ProjectDTO::getId, x -> x, (x, y) -> x));
+            projectCache.putAll(projectMap);
+        } catch (Exception e) {
+            preloadOrganizationIds.remove(organizationId);
+            logger.warn("preload projects of organization failed,organizationId:{},message:{}", organizationId, e.getMessage());
         }
     }
 }
@@ -1,7 +1,9 @@
 package io.choerodon.issue.infra.utils;
 
 
-import io.choerodon.issue.infra.utils.jirarank.AgileRank;
+import io.choerodon.issue.infra.utils.jirarank.AgileRankCalculator;
+
+import java.util.List;
 
 /**
  * Created by jian_zhang02@163.com on 2018/5/28.
@@ -12,22 +14,25 @@ public class RankUtil {
     }
 
     public static String mid() {
-        AgileRank minRank = AgileRank.min();
-        AgileRank maxRank = AgileRank.max();
-        return minRank.between(maxRank).format();
+        return AgileRankCalculator.mid();
+    }
+
+    /**
+     * 生成count个均匀分布的rank，从小到大排列
+     */
+    public static List<String> spread(int count) {
+        return AgileRankCalculator.spread(count);
     }
 
     public static String genNext(String rank) {
-        return AgileRank.parse(rank).genNext().format();
+        return AgileRankCalculator.genNext(rank);
     }
 
     public static String genPre(String minRank) {
-        return AgileRank.parse(minRank).genPrev().format();
+        return AgileRankCalculator.genPrev(minRank);
     }
 
     public static String between(String leftRank, String rightRank) {
-        AgileRank left = AgileRank.parse(leftRank);
-        AgileRank right = AgileRank.parse(rightRank);
-        return left.between(right).format();
+        return AgileRankCalculator.between(leftRank, rightRank);
     }
 }
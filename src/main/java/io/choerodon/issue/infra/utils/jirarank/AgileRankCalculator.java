@@ -0,0 +1,372 @@
+package io.choerodon.issue.infra.utils.jirarank;
+
+import io.choerodon.core.exception.CommonException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 直接在36进制的数字数组上计算rank，结果与AgileRank一致，但不创建AgileDecimal/AgileInteger等中间对象。
+ * 所有数字按相同的小数位数对齐为定长数组，下标0为最高位，无共享状态，可被多线程同时调用
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+public final class AgileRankCalculator {
+    private static final int BASE = 36;
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final String[] BUCKETS = {"0", "1", "2"};
+    private static final char BUCKET_SEPARATOR = '|';
+    private static final char RADIX_POINT = ':';
+    /**
+     * rank整数部分的位数
+     */
+    private static final int INTEGER_DIGITS = 6;
+    /**
+     * 整数部分多留一位，容纳genNext时超过最大值的中间结果
+     */
+    private static final int INTEGER_WIDTH = INTEGER_DIGITS + 1;
+    /**
+     * 个位的下标
+     */
+    private static final int UNITS = INTEGER_WIDTH - 1;
+    /**
+     * between中间隔与半间隔最多比操作数多两位小数
+     */
+    private static final int EXTRA_SCALE = 2;
+    private static final int STEP = 8;
+    private static final int[] SPACING_DIVISORS = {18, 12, 9, 6, 4, 3, 2, 1};
+    /**
+     * rank整数部分的取值范围：36^6
+     */
+    private static final long INTEGER_RANGE = 2176782336L;
+    private static final String MIN_RANK = "0|000000:";
+    private static final String MAX_RANK = "0|zzzzzz:";
+    private static final String INITIAL_MIN = "100000:";
+    private static final String INITIAL_MAX = "y00000:";
+
+    private static final String BUCKET_ERROR = "error.rank.bucketNotEqual";
+    private static final String UNKNOWN_BUCKET_ERROR = "error.rank.unknownBucket";
+    private static final String RANK_ERROR = "error.rank.notBetweenRank";
+    private static final String DISTANCE_ERROR = "error.rank.notSuitableDistance";
+    private static final String RADIX_POINT_ERROR = "error.rank.moreThanOne";
+    private static final String DIGIT_ERROR = "error.rank.notValidDigit";
+    private static final String ILLEGAL_RANK_ERROR = "error.rank.illegalRankValue";
+    private static final String COUNT_ERROR = "error.rank.illegalCount";
+
+    private AgileRankCalculator() {
+    }
+
+    public static String mid() {
+        return between(MIN_RANK, MAX_RANK);
+    }
+
+    /**
+     * 在最小值与最大值之间生成count个均匀分布的整数rank，从小到大排列
+     *
+     * @param count count
+     * @return List
+     */
+    public static List<String> spread(int count) {
+        if (count < 0 || count >= INTEGER_RANGE - 1) {
+            throw new CommonException(COUNT_ERROR);
+        }
+        List<String> ranks = new ArrayList<>(count);
+        long step = INTEGER_RANGE / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            ranks.add(formatInteger(step * i));
+        }
+        return ranks;
+    }
+
+    public static String genNext(String rank) {
+        int separator = separatorIndex(rank);
+        String bucket = parseBucket(rank, separator);
+        int width = INTEGER_WIDTH + scale(rank, separator) + EXTRA_SCALE;
+        byte[] value = parseDecimal(rank, separator, width);
+        if (isZero(value)) {
+            return bucket + BUCKET_SEPARATOR + INITIAL_MIN;
+        }
+        //向上取整后加8，超过最大值时取与最大值之间的rank
+        byte[] next = Arrays.copyOf(value, width);
+        boolean exact = isZeroFrom(next, INTEGER_WIDTH);
+        Arrays.fill(next, INTEGER_WIDTH, width, (byte) 0);
+        addAt(next, UNITS, exact ? STEP : STEP + 1);
+        byte[] max = max(width);
+        if (compare(next, max) >= 0) {
+            next = between(value, max);
+        }
+        return format(bucket, next);
+    }
+
+    public static String genPrev(String rank) {
+        int separator = separatorIndex(rank);
+        String bucket = parseBucket(rank, separator);
+        int width = INTEGER_WIDTH + scale(rank, separator) + EXTRA_SCALE;
+        byte[] value = parseDecimal(rank, separator, width);
+        byte[] max = max(width);
+        if (compare(value, max) == 0) {
+            return bucket + BUCKET_SEPARATOR + INITIAL_MAX;
+        }
+        //向下取整后减8，不大于最小值时取与最小值之间的rank
+        byte[] prev = Arrays.copyOf(value, width);
+        Arrays.fill(prev, INTEGER_WIDTH, width, (byte) 0);
+        if (isZeroFrom(prev, 0, UNITS) && prev[UNITS] <= STEP) {
+            prev = between(new byte[width], value);
+        } else {
+            subtractAt(prev, UNITS, STEP);
+        }
+        return format(bucket, prev);
+    }
+
+    public static String between(String leftRank, String rightRank) {
+        int leftSeparator = separatorIndex(leftRank);
+        int rightSeparator = separatorIndex(rightRank);
+        String bucket = parseBucket(leftRank, leftSeparator);
+        if (!bucket.equals(parseBucket(rightRank, rightSeparator))) {
+            throw new CommonException(BUCKET_ERROR);
+        }
+        int width = INTEGER_WIDTH + Math.max(scale(leftRank, leftSeparator), scale(rightRank, rightSeparator)) + EXTRA_SCALE;
+        byte[] left = parseDecimal(leftRank, leftSeparator, width);
+        byte[] right = parseDecimal(rightRank, rightSeparator, width);
+        int cmp = compare(left, right);
+        if (cmp == 0) {
+            throw new CommonException(RANK_ERROR);
+        }
+        return format(bucket, cmp < 0 ? between(left, right) : between(right, left));
+    }
+
+    /**
+     * 取left与right之间的值：按两者距离的量级选一个36的约数作为间隔，
+     * 取left之后最近的间隔倍数，离left不足半个间隔时再往后取一个间隔
+     */
+    private static byte[] between(byte[] left, byte[] right) {
+        if (compare(left, right) >= 0) {
+            throw new CommonException(DISTANCE_ERROR);
+        }
+        byte[] space = subtract(right, left);
+        int msd = 0;
+        while (space[msd] == 0) {
+            msd++;
+        }
+        //依次尝试最高位与下一位上的间隔，距离至少能容纳两个间隔
+        int spacingIndex = msd;
+        int divisor = 0;
+        for (int index = msd; divisor == 0 && index <= msd + 1; index++) {
+            for (int candidate : SPACING_DIVISORS) {
+                if (covers(space, msd, index, candidate * 2)) {
+                    spacingIndex = index;
+                    divisor = candidate;
+                    break;
+                }
+            }
+        }
+        //间隔是36的约数，left截断后的个位即可判断是否为间隔的倍数
+        byte[] result = Arrays.copyOf(left, left.length);
+        Arrays.fill(result, spacingIndex + 1, result.length, (byte) 0);
+        addAt(result, spacingIndex, divisor - result[spacingIndex] % divisor);
+        byte[] halfSpacing = new byte[left.length];
+        addAt(halfSpacing, spacingIndex + 1, divisor * BASE / 2);
+        if (compare(subtract(result, left), halfSpacing) < 0) {
+            addAt(result, spacingIndex, divisor);
+        }
+        return result;
+    }
+
+    /**
+     * space是否不小于在index位上的值digit（digit不超过36）
+     */
+    private static boolean covers(byte[] space, int msd, int index, int digit) {
+        if (digit == BASE) {
+            index--;
+            digit = 1;
+        }
+        if (index != msd) {
+            return index > msd;
+        }
+        return space[msd] >= digit;
+    }
+
+    private static void addAt(byte[] digits, int index, int amount) {
+        int carry = amount;
+        for (int i = index; carry > 0; i--) {
+            if (i < 0) {
+                throw new CommonException(ILLEGAL_RANK_ERROR);
+            }
+            int sum = digits[i] + carry;
+            if (sum < BASE) {
+                digits[i] = (byte) sum;
+                return;
+            }
+            digits[i] = (byte) (sum % BASE);
+            carry = sum / BASE;
+        }
+    }
+
+    private static void subtractAt(byte[] digits, int index, int amount) {
+        int borrow = amount;
+        for (int i = index; borrow > 0; i--) {
+            int diff = digits[i] - borrow;
+            if (diff >= 0) {
+                digits[i] = (byte) diff;
+                return;
+            }
+            digits[i] = (byte) (diff + BASE);
+            borrow = 1;
+        }
+    }
+
+    /**
+     * 计算left - right，调用方保证left不小于right
+     */
+    private static byte[] subtract(byte[] left, byte[] right) {
+        byte[] result = new byte[left.length];
+        int borrow = 0;
+        for (int i = left.length - 1; i >= 0; i--) {
+            int diff = left[i] - right[i] - borrow;
+            if (diff < 0) {
+                diff += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            result[i] = (byte) diff;
+        }
+        return result;
+    }
+
+    private static int compare(byte[] left, byte[] right) {
+        for (int i = 0; i < left.length; i++) {
+            if (left[i] != right[i]) {
+                return left[i] < right[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isZero(byte[] digits) {
+        return isZeroFrom(digits, 0);
+    }
+
+    private static boolean isZeroFrom(byte[] digits, int from) {
+        return isZeroFrom(digits, from, digits.length);
+    }
+
+    private static boolean isZeroFrom(byte[] digits, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (digits[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] max(int width) {
+        byte[] max = new byte[width];
+        Arrays.fill(max, 1, INTEGER_WIDTH, (byte) (BASE - 1));
+        return max;
+    }
+
+    private static int separatorIndex(String rank) {
+        int separator = rank.indexOf(BUCKET_SEPARATOR);
+        if (separator < 0) {
+            throw new CommonException(ILLEGAL_RANK_ERROR);
+        }
+        return separator;
+    }
+
+    private static String parseBucket(String rank, int separator) {
+        int bucket = 0;
+        for (int i = 0; i < separator; i++) {
+            bucket = bucket * BASE + toDigit(rank.charAt(i));
+            if (bucket >= BUCKETS.length) {
+                throw new CommonException(UNKNOWN_BUCKET_ERROR);
+            }
+        }
+        return BUCKETS[bucket];
+    }
+
+    /**
+     * 小数部分的位数
+     */
+    private static int scale(String rank, int separator) {
+        int point = rank.indexOf(RADIX_POINT, separator + 1);
+        if (point < 0) {
+            return 0;
+        }
+        if (rank.lastIndexOf(RADIX_POINT) != point) {
+            throw new CommonException(RADIX_POINT_ERROR);
+        }
+        return rank.length() - point - 1;
+    }
+
+    private static byte[] parseDecimal(String rank, int separator, int width) {
+        byte[] digits = new byte[width];
+        int point = rank.indexOf(RADIX_POINT, separator + 1);
+        int integerEnd = point < 0 ? rank.length() : point;
+        int index = UNITS;
+        for (int i = integerEnd - 1; i > separator; i--, index--) {
+            int digit = toDigit(rank.charAt(i));
+            if (index > 0) {
+                digits[index] = (byte) digit;
+            } else if (digit != 0) {
+                throw new CommonException(ILLEGAL_RANK_ERROR);
+            }
+        }
+        if (point >= 0) {
+            index = INTEGER_WIDTH;
+            for (int i = point + 1; i < rank.length(); i++, index++) {
+                digits[index] = (byte) toDigit(rank.charAt(i));
+            }
+        }
+        return digits;
+    }
+
+    private static int toDigit(char ch) {
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0';
+        } else if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a' + 10;
+        } else {
+            throw new CommonException(DIGIT_ERROR);
+        }
+    }
+
+    private static String formatInteger(long value) {
+        char[] chars = new char[INTEGER_DIGITS + 3];
+        chars[0] = BUCKETS[0].charAt(0);
+        chars[1] = BUCKET_SEPARATOR;
+        for (int i = INTEGER_DIGITS + 1; i > 1; i--) {
+            chars[i] = DIGITS[(int) (value % BASE)];
+            value /= BASE;
+        }
+        chars[INTEGER_DIGITS + 2] = RADIX_POINT;
+        return new String(chars);
+    }
+
+    /**
+     * 整数部分补足6位，小数部分去掉末尾的0
+     */
+    private static String format(String bucket, byte[] digits) {
+        int last = digits.length - 1;
+        while (last >= INTEGER_WIDTH && digits[last] == 0) {
+            last--;
+        }
+        int first = digits[0] == 0 ? 1 : 0;
+        char[] chars = new char[bucket.length() + 1 + (INTEGER_WIDTH - first) + 1 + (last + 1 - INTEGER_WIDTH)];
+        int pos = 0;
+        for (int i = 0; i < bucket.length(); i++) {
+            chars[pos++] = bucket.charAt(i);
+        }
+        chars[pos++] = BUCKET_SEPARATOR;
+        for (int i = first; i < INTEGER_WIDTH; i++) {
+            chars[pos++] = DIGITS[digits[i]];
+        }
+        chars[pos++] = RADIX_POINT;
+        for (int i = INTEGER_WIDTH; i <= last; i++) {
+            chars[pos++] = DIGITS[digits[i]];
+        }
+        return new String(chars);
+    }
+}
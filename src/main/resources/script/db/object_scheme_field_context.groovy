@@ -0,0 +1,28 @@
+package script.db
+
+
+databaseChangeLog(logicalFilePath: 'object_scheme_field_context.groovy') {
+    changeSet(id: '2026-10-17-create-table-object-scheme-field-context', author: 'agent@local') {
+        createTable(tableName: 'object_scheme_field_context') {
+            column(name: 'id', type: 'BIGINT UNSIGNED', autoIncrement: true, remarks: '主键') {
+                constraints(primaryKey: true)
+            }
+            column(name: 'field_id', type: 'BIGINT UNSIGNED', remarks: '字段id') {
+                constraints(nullable: false)
+            }
+            column(name: 'context', type: 'VARCHAR(30)', remarks: '字段上下文') {
+                constraints(nullable: false)
+            }
+
+            column(name: "object_version_number", type: "BIGINT UNSIGNED", defaultValue: "1")
+            column(name: "created_by", type: "BIGINT UNSIGNED", defaultValue: "0")
+            column(name: "creation_date", type: "DATETIME", defaultValueComputed: "CURRENT_TIMESTAMP")
+            column(name: "last_updated_by", type: "BIGINT UNSIGNED", defaultValue: "0")
+            column(name: "last_update_date", type: "DATETIME", defaultValueComputed: "CURRENT_TIMESTAMP")
+        }
+        createIndex(tableName: "object_scheme_field_context", indexName: "uk_object_scheme_field_context", unique: true) {
+            column(name: "field_id", type: "BIGINT UNSIGNED")
+            column(name: "context", type: "VARCHAR(30)")
+        }
+    }
+}
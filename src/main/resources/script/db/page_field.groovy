@@ -38,4 +38,12 @@ databaseChangeLog(logicalFilePath: 'page_field.groovy') {
             column(name: "organization_id", type: "BIGINT UNSIGNED")
         }
     }
+
+    changeSet(id: '2026-10-17-add-index-page-field-page', author: 'agent@local') {
+        createIndex(tableName: "page_field", indexName: "idx_page_field_page") {
+            column(name: "organization_id", type: "BIGINT UNSIGNED")
+            column(name: "page_id", type: "BIGINT UNSIGNED")
+            column(name: "project_id", type: "BIGINT UNSIGNED")
+        }
+    }
 }
\ No newline at end of file
@@ -51,5 +51,10 @@ databaseChangeLog(logicalFilePath: 'state_machine_node.groovy') {
             "update state_machine_node set position_y = FLOOR(position_y/2/50)*50"
         }
     }
+    changeSet(id: '2026-10-17-add-index-state-machine-node-organization', author: 'agent@local') {
+        createIndex(tableName: "state_machine_node", indexName: "state_machine_node_n4") {
+            column(name: "organization_id", type: "BIGINT UNSIGNED")
+        }
+    }
 
-}
\ No newline at end of file
+}
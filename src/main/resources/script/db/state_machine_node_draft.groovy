@@ -50,4 +50,10 @@ databaseChangeLog(logicalFilePath: 'state_machine_node_draft.groovy') {
             "update state_machine_node_draft set position_y = FLOOR(position_y/2/50)*50"
         }
     }
-}
\ No newline at end of file
+    changeSet(id: '2026-10-17-add-index-state-machine-node-draft-organization', author: 'agent@local') {
+        createIndex(tableName: "state_machine_node_draft", indexName: "state_machine_node_draft_n4") {
+            column(name: "organization_id", type: "BIGINT UNSIGNED")
+        }
+    }
+
+}
@@ -47,4 +47,18 @@ databaseChangeLog(logicalFilePath: 'state_machine_scheme.groovy') {
             column(name: 'deploy_status', type: 'VARCHAR(30)', remarks: '状态机方案的发布状态', defaultValue: "done")
         }
     }
-}
\ No newline at end of file
+    changeSet(id: '2026-10-17-add-column-state-machine-scheme-deploy-batch', author: 'agent@local') {
+        addColumn(tableName: 'state_machine_scheme') {
+            column(name: 'deploy_batch_count', type: 'int', remarks: '发布状态机方案的批次总数', defaultValue: "0")
+            column(name: 'deploy_batch_sent', type: 'int', remarks: '发布状态机方案已发送的批次数', defaultValue: "0")
+            column(name: 'deploy_batch_done', type: 'int', remarks: '发布状态机方案已完成的批次数', defaultValue: "0")
+            column(name: 'deploy_payload', type: 'LONGTEXT', remarks: '发布状态机方案的待发送数据')
+        }
+    }
+    changeSet(id: '2026-10-17-add-column-state-machine-scheme-deploy-batch-sent-time', author: 'agent@local') {
+        addColumn(tableName: 'state_machine_scheme') {
+            column(name: 'deploy_batch_sent_time', type: 'DATETIME', remarks: '发布状态机方案最近一个批次的发送时间')
+            column(name: 'deploy_batch_resend', type: 'int', remarks: '发布状态机方案当前批次的重发次数', defaultValue: "0")
+        }
+    }
+}
@@ -64,6 +64,11 @@ public class MockConfiguration {
         executeResult.setSuccess(true);
         executeResult.setResultStatusId(1L);
         Mockito.when(customFeignClientAdaptor.executeConfig(Matchers.any(URI.class), Matchers.any(InputVO.class))).thenReturn(new ResponseEntity(executeResult, HttpStatus.OK));
+        Mockito.when(customFeignClientAdaptor.executeConfigBatch(Matchers.any(URI.class), Matchers.anyList())).thenAnswer(invocation -> {
+            List<ExecuteResult> executeResults = new ArrayList<>();
+            ((List<?>) invocation.getArguments()[1]).forEach(x -> executeResults.add(executeResult));
+            return new ResponseEntity(executeResults, HttpStatus.OK);
+        });
         List<TransformInfo> transformInfos = new ArrayList<>();
         TransformInfo transformInfo = new TransformInfo();
         transformInfo.setId(10L);
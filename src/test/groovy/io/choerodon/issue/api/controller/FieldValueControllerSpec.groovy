@@ -1,19 +1,24 @@
 package io.choerodon.issue.api.controller
 
+import com.alibaba.fastjson.JSON
 import io.choerodon.issue.IntegrationTestConfiguration
 import io.choerodon.issue.api.vo.*
 import io.choerodon.issue.app.service.ObjectSchemeFieldService
+import io.choerodon.issue.infra.dto.FieldValueDTO
 import io.choerodon.issue.infra.enums.FieldType
 import io.choerodon.issue.infra.enums.ObjectSchemeCode
 import io.choerodon.issue.infra.enums.ObjectSchemeFieldContext
 import io.choerodon.issue.infra.enums.PageCode
+import io.choerodon.issue.infra.mapper.FieldValueMapper
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.web.client.TestRestTemplate
 import org.springframework.context.annotation.Import
 import org.springframework.core.ParameterizedTypeReference
 import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
 import org.springframework.test.context.ActiveProfiles
 import spock.lang.Shared
 import spock.lang.Specification
@@ -33,6 +38,8 @@ class FieldValueControllerSpec extends Specification {
     TestRestTemplate restTemplate
     @Autowired
     ObjectSchemeFieldService objectSchemeFieldService
+    @Autowired
+    FieldValueMapper fieldValueMapper
     @Shared
     Long organizationId = 1L
     @Shared
@@ -92,6 +99,25 @@ class FieldValueControllerSpec extends Specification {
         ObjectSchemeFieldContext.EPIC | ObjectSchemeCode.AGILE_ISSUE | PageCode.AGILE_ISSUE_CREATE || true       | true
     }
 
+    def "queryPageFieldViewListNotModified"() {
+        given: '获取字段列表及其ETag'
+        PageFieldViewParamVO param = new PageFieldViewParamVO()
+        param.context = ObjectSchemeFieldContext.EPIC
+        param.schemeCode = ObjectSchemeCode.AGILE_ISSUE
+        param.pageCode = PageCode.AGILE_ISSUE_CREATE
+        def first = restTemplate.exchange(url + "/list?organizationId=" + organizationId, HttpMethod.POST, new HttpEntity<>(param), Object, projectId)
+        def etag = first.getHeaders().getETag()
+
+        when: '带ETag进行条件查询'
+        HttpHeaders headers = new HttpHeaders()
+        headers.setIfNoneMatch(etag)
+        def entity = restTemplate.exchange(url + "/list?organizationId=" + organizationId, HttpMethod.POST, new HttpEntity<>(param, headers), Object, projectId)
+
+        then: '布局未变化，返回304'
+        etag != null
+        entity.statusCode == HttpStatus.NOT_MODIFIED
+    }
+
     def "queryPageFieldViewListWithInstanceId"() {
         given: '准备'
         def id = 1L
@@ -211,4 +237,42 @@ class FieldValueControllerSpec extends Specification {
         expRequest | expResponse
         true       | true
     }
-}
\ No newline at end of file
+
+    def "exportFieldValueWithIssueIds"() {
+        given: '准备'
+        def instanceIds = [1L, 2L]
+
+        when: '流式导出自定义字段CodeValue'
+        HttpEntity<List<Long>> httpEntity = new HttpEntity<>(instanceIds)
+        def entity = restTemplate.exchange(url + "/query/instanceIds/stream?organizationId=" + organizationId, HttpMethod.POST, httpEntity, String, projectId)
+
+        then: '状态码为200，每个实例一行'
+        entity.getStatusCode().is2xxSuccessful()
+        def lines = entity.getBody().readLines().findAll { !it.trim().isEmpty() }
+        lines.size() == expSize
+        lines.collect { JSON.parseObject(it).getLong('instanceId') } as Set == instanceIds as Set
+
+        where: '测试用例：'
+        expSize << [2]
+    }
+
+    def "queryFieldValueWithIssueIdsWhenFieldDeleted"() {
+        given: '准备一个字段已被删除的字段值'
+        def instanceId = 3L
+        FieldValueDTO fieldValue = new FieldValueDTO()
+        fieldValue.fieldId = 999999L
+        fieldValue.stringValue = 'deleted'
+        fieldValueMapper.batchInsert(projectId, instanceId, ObjectSchemeCode.AGILE_ISSUE, [fieldValue])
+
+        when: '批量查询自定义字段CodeValue'
+        ParameterizedTypeReference<Map<Long, Map<String, String>>> typeRef = new ParameterizedTypeReference<Map<Long, Map<String, String>>>() {
+        }
+        HttpEntity<List<Long>> httpEntity = new HttpEntity<>([1L, instanceId])
+        def entity = restTemplate.exchange(url + "/query/instanceIds?organizationId=" + organizationId, HttpMethod.POST, httpEntity, typeRef, projectId)
+
+        then: '状态码为200，只跳过已删除的字段'
+        entity.getStatusCode().is2xxSuccessful()
+        entity.getBody().size() == 2
+        entity.getBody().get(instanceId).isEmpty()
+    }
+}
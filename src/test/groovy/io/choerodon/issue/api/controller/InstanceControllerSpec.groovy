@@ -1,7 +1,9 @@
 package io.choerodon.issue.api.controller
 
 import io.choerodon.issue.IntegrationTestConfiguration
+import io.choerodon.issue.api.controller.v1.InstanceController
 import io.choerodon.issue.api.vo.ExecuteResult
+import io.choerodon.issue.api.vo.ExecuteTransformVO
 import io.choerodon.issue.api.vo.InputVO
 import io.choerodon.issue.api.vo.StateMachineVO
 import io.choerodon.issue.app.service.InitService
@@ -14,9 +16,15 @@ import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.web.client.TestRestTemplate
 import org.springframework.context.annotation.Import
 import org.springframework.core.ParameterizedTypeReference
+import org.springframework.core.task.AsyncTaskExecutor
+import org.springframework.core.task.TaskRejectedException
 import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
 import org.springframework.test.context.ActiveProfiles
+import org.springframework.test.util.AopTestUtils
+import org.springframework.test.util.ReflectionTestUtils
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Stepwise
@@ -50,6 +58,8 @@ class InstanceControllerSpec extends Specification {
     StateMachineService stateMachineService
     @Autowired
     InitService initService
+    @Autowired
+    InstanceController instanceController
     @Shared
     def needInit = true
     @Shared
@@ -240,6 +250,34 @@ class InstanceControllerSpec extends Specification {
         'agile'     | 100L            | 100L             | 9999L       | null  | 1L         | "create"   || true       | false
     }
 
+    def "executeTransforms"() {
+        given: '准备工作'
+        def url = baseUrl + "/execute_transforms?service_code=agile"
+        List<ExecuteTransformVO> executeTransformVOS = new ArrayList<>()
+        ExecuteTransformVO legal = new ExecuteTransformVO()
+        legal.instanceId = 1L
+        legal.stateMachineId = 100L
+        legal.currentStatusId = 100L
+        legal.transformId = 100L
+        executeTransformVOS.add(legal)
+        ExecuteTransformVO illegal = new ExecuteTransformVO()
+        illegal.instanceId = 2L
+        illegal.stateMachineId = 100L
+        illegal.currentStatusId = 100L
+        illegal.transformId = 9999L
+        executeTransformVOS.add(illegal)
+        when: '批量执行状态转换'
+        HttpEntity<List<ExecuteTransformVO>> httpEntity = new HttpEntity<>(executeTransformVOS)
+        ParameterizedTypeReference<List<ExecuteResult>> typeRef = new ParameterizedTypeReference<List<ExecuteResult>>() {
+        }
+        def entity = restTemplate.exchange(url, HttpMethod.POST, httpEntity, typeRef, testOrganizationId)
+        then: '状态码为200，按顺序返回每个实例的结果'
+        entity.getStatusCode().is2xxSuccessful()
+        entity.getBody().size() == 2
+        entity.getBody().get(0).getSuccess()
+        !entity.getBody().get(1).getSuccess()
+    }
+
     def "queryListTransform"() {
         given: '准备工作'
         def url = baseUrl + "/transform_list?1=1"
@@ -275,6 +313,49 @@ class InstanceControllerSpec extends Specification {
         'agile'     | 100L            | 100L             | 1L         || true       | true
     }
 
+    def "executeTransformAsync"() {
+        given: '准备工作'
+        def url = baseUrl + "/execute_transform_async?service_code=agile&state_machine_id=100&current_status_id=100&transform_id=100"
+        InputVO inputVO = new InputVO()
+        inputVO.instanceId = 1L
+        inputVO.invokeCode = "create"
+        when: '异步执行状态转换'
+        def entity = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(inputVO), ExecuteResult, testOrganizationId)
+        then: '状态码为200，转换成功'
+        entity.getStatusCode().is2xxSuccessful()
+        entity.getBody().getSuccess()
+    }
+
+    def "queryListTransformAsync"() {
+        given: '准备工作'
+        def url = baseUrl + "/transform_list_async?service_code=agile&state_machine_id=100&current_status_id=100&instance_id=1"
+        when: '异步获取当前状态拥有的转换列表'
+        def entity = restTemplate.exchange(url, HttpMethod.GET, null, List, testOrganizationId)
+        then: '状态码为200，返回转换列表'
+        entity.getStatusCode().is2xxSuccessful()
+        entity.getBody().size() > 0
+    }
+
+    def "executeTransformAsyncWhenExecutorBusy"() {
+        given: '转换线程池与队列都已满'
+        def url = baseUrl + "/execute_transform_async?service_code=agile&state_machine_id=100&current_status_id=100&transform_id=100"
+        InputVO inputVO = new InputVO()
+        inputVO.instanceId = 1L
+        inputVO.invokeCode = "create"
+        def controller = AopTestUtils.getUltimateTargetObject(instanceController)
+        def callbackExecutor = ReflectionTestUtils.getField(controller, 'callbackExecutor')
+        ReflectionTestUtils.setField(controller, 'callbackExecutor', { Runnable task ->
+            throw new TaskRejectedException("callback executor is full")
+        } as AsyncTaskExecutor)
+        when: '异步执行状态转换'
+        def entity = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(inputVO), String, testOrganizationId)
+        then: '状态码为503，提示稍后重试'
+        entity.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+        entity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER) != null
+        cleanup: '恢复转换线程池'
+        ReflectionTestUtils.setField(controller, 'callbackExecutor', callbackExecutor)
+    }
+
     def "queryInitStatusId"() {
         given: '准备工作'
         def url = baseUrl + "/query_init_status_id?1=1"
@@ -15,6 +15,10 @@ import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.web.client.TestRestTemplate
 import org.springframework.context.annotation.Import
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
 import org.springframework.test.context.ActiveProfiles
 import spock.lang.Shared
 import spock.lang.Specification
@@ -138,6 +142,23 @@ class SchemeControllerSpec extends Specification {
         entity.statusCode.value() == 200
     }
 
+    def "queryTransformsMapByProjectIdWithEtag"() {
+        given: '第一次查询获取ETag'
+        def first = restTemplate.getForEntity("/v1/projects/{project_id}/schemes/query_transforms_map?apply_type={apply_type}",
+                Object, projectId, "agile")
+        def etag = first.getHeaders().getETag()
+
+        when: '带ETag进行条件查询'
+        HttpHeaders headers = new HttpHeaders()
+        headers.setIfNoneMatch(etag)
+        def entity = restTemplate.exchange("/v1/projects/{project_id}/schemes/query_transforms_map?apply_type={apply_type}",
+                HttpMethod.GET, new HttpEntity<>(headers), Object, projectId, "agile")
+
+        then: '快照未变化，返回304'
+        etag != null
+        entity.statusCode == HttpStatus.NOT_MODIFIED
+    }
+
     def "queryStatusByIssueTypeId"() {
         when: '查询项目下某个问题类型的所有状态'
         def entity = restTemplate.getForEntity("/v1/projects/{project_id}/schemes/query_status_by_issue_type_id?issue_type_id={issue_type_id}&apply_type={apply_type}",
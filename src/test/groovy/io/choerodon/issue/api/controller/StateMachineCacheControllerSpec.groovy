@@ -0,0 +1,53 @@
+package io.choerodon.issue.api.controller
+
+import io.choerodon.issue.IntegrationTestConfiguration
+import io.choerodon.issue.infra.cache.InstanceCache
+import io.choerodon.issue.infra.factory.StateMachineDefinition
+import io.choerodon.issue.infra.factory.TransitionTable
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.context.annotation.Import
+import org.springframework.test.context.ActiveProfiles
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Stepwise
+
+import java.util.function.Function
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT
+
+/**
+ * @author agent
+ * @since 2026/10/17
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@Import(IntegrationTestConfiguration)
+@ActiveProfiles("test")
+@Stepwise
+class StateMachineCacheControllerSpec extends Specification {
+    @Autowired
+    TestRestTemplate restTemplate
+    @Autowired
+    InstanceCache instanceCache
+    @Shared
+    String baseUrl = '/v1/statemachine/cache'
+
+    def "clean"() {
+        given: '准备工作，缓存一个状态机定义并记录加载次数'
+        def loadCount = 0
+        Function<Long, StateMachineDefinition> loader = { Long id ->
+            loadCount++
+            StateMachineDefinition.build(TransitionTable.compile(id, null, [], []), [], [])
+        }
+        instanceCache.getDefinition(stateMachineId, loader)
+        when: '其他副本通知清除状态机缓存'
+        def entity = restTemplate.postForEntity(baseUrl + '/clean?cache_name=statemachine&key={key}', null, Void, stateMachineId)
+        instanceCache.getDefinition(stateMachineId, loader)
+        then: '状态码为200，状态机定义被重新加载'
+        entity.getStatusCode().is2xxSuccessful()
+        loadCount == 2
+        where: '测试用例：'
+        stateMachineId << [9999L]
+    }
+}
@@ -4,6 +4,7 @@ package io.choerodon.issue.api.controller
 import com.github.pagehelper.PageInfo
 import io.choerodon.issue.IntegrationTestConfiguration
 import io.choerodon.issue.api.vo.StateMachineSchemeConfigVO
+import io.choerodon.issue.api.vo.StateMachineSchemeDeployProgressVO
 import io.choerodon.issue.api.vo.StateMachineSchemeVO
 import io.choerodon.issue.api.vo.payload.StateMachineSchemeChangeItem
 import io.choerodon.issue.app.service.StateMachineSchemeService
@@ -242,6 +243,17 @@ class StateMachineSchemeControllerSpec extends Specification {
         entity.body
     }
 
+    def "queryDeployProgress"() {
+        when: '查询状态机方案发布进度'
+        def entity = restTemplate.exchange(baseUrl + "/deploy_progress/{scheme_id}", HttpMethod.GET, null, StateMachineSchemeDeployProgressVO, organizationId, 3L)
+
+        then: '结果判断'
+        entity.getStatusCode().is2xxSuccessful()
+
+        expect: "校验结果"
+        entity.body.schemeId == 3L
+    }
+
     def "updateDeployProgress"() {
         given: "准备数据"
         HttpEntity<List<StateMachineSchemeChangeItem>> httpEntity = new HttpEntity<>(stateMachineSchemeChangeItemList)
@@ -0,0 +1,150 @@
+package io.choerodon.issue.infra.utils
+
+import com.alibaba.fastjson.JSON
+import io.choerodon.issue.api.vo.FieldValueVO
+import io.choerodon.issue.api.vo.PageFieldViewVO
+import io.choerodon.issue.api.vo.StateMachineConfigVO
+import io.choerodon.issue.api.vo.StatusVO
+import io.choerodon.issue.api.vo.payload.TransformInfo
+import io.choerodon.issue.api.vo.payload.TransformVO
+import io.choerodon.issue.infra.dto.*
+import org.modelmapper.ModelMapper
+import org.modelmapper.TypeToken
+import org.modelmapper.convention.MatchingStrategies
+import spock.lang.Shared
+import spock.lang.Specification
+
+/**
+ * ConvertUtils的转换结果需要与原来STRICT匹配策略下ModelMapper的映射结果保持一致
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+class ConvertUtilsSpec extends Specification {
+
+    @Shared
+    ModelMapper modelMapper = strictModelMapper()
+
+    def "convertStatusToVO"() {
+        given:
+        StatusDTO status = new StatusDTO()
+        status.id = 1L
+        status.name = '待处理'
+        status.code = 'create'
+        status.description = 'desc'
+        status.type = 'todo'
+        status.organizationId = 2L
+        status.objectVersionNumber = 3L
+
+        expect: '与ModelMapper一致'
+        same(ConvertUtils.convertStatusToVO(status), modelMapper.map(status, StatusVO))
+    }
+
+    def "convertTransformToVO and convertTransformToInfo"() {
+        given:
+        StateMachineTransformDTO transform = new StateMachineTransformDTO()
+        transform.id = 1L
+        transform.name = '开始处理'
+        transform.description = 'desc'
+        transform.stateMachineId = 2L
+        transform.startNodeId = 3L
+        transform.endNodeId = 4L
+        transform.endStatusId = 5L
+        transform.url = 'url'
+        transform.type = 'transform_custom'
+        transform.style = 'style'
+        transform.conditionStrategy = 'condition_all'
+        transform.organizationId = 6L
+        transform.objectVersionNumber = 7L
+
+        expect: '与ModelMapper一致'
+        same(ConvertUtils.convertTransformToVO(transform), modelMapper.map(transform, TransformVO))
+        same(ConvertUtils.convertTransformToInfo(transform), modelMapper.map(transform, TransformInfo))
+        same(ConvertUtils.convertTransformInfoToVO(ConvertUtils.convertTransformToInfo(transform)),
+                modelMapper.map(modelMapper.map(transform, TransformInfo), TransformVO))
+    }
+
+    def "convertConfigToVO"() {
+        given:
+        StateMachineConfigDTO config = new StateMachineConfigDTO()
+        config.id = 1L
+        config.transformId = 2L
+        config.stateMachineId = 3L
+        config.code = 'just_reporter'
+        config.type = 'condition'
+        config.organizationId = 4L
+        config.codeName = '仅允许报告人'
+        config.codeDescription = 'desc'
+        config.objectVersionNumber = 5L
+
+        expect: '与ModelMapper一致'
+        same(ConvertUtils.convertConfigToVO(config), modelMapper.map(config, StateMachineConfigVO))
+    }
+
+    def "convertPageFieldToViewVO"() {
+        given:
+        PageFieldDTO pageField = new PageFieldDTO()
+        pageField.id = 1L
+        pageField.pageId = 2L
+        pageField.fieldId = 3L
+        pageField.display = true
+        pageField.rank = '0|c00000:'
+        pageField.projectId = 4L
+        pageField.organizationId = 5L
+        pageField.fieldName = '字段'
+        pageField.fieldType = 'input'
+        pageField.fieldCode = 'code'
+        pageField.system = false
+        pageField.context = 'global'
+        pageField.defaultValue = 'default'
+        pageField.extraConfig = false
+        pageField.required = true
+        pageField.fieldTypeName = '单行文本'
+
+        expect: '与ModelMapper一致'
+        same(ConvertUtils.convertPageFieldToViewVO(pageField), modelMapper.map(pageField, PageFieldViewVO))
+    }
+
+    def "convertFieldValuesToVOS"() {
+        given:
+        List<FieldValueDTO> fieldValues = fieldValues(10)
+
+        expect: '与ModelMapper一致'
+        same(ConvertUtils.convertFieldValuesToVOS(fieldValues), modelMapper.map(fieldValues, new TypeToken<List<FieldValueVO>>() {
+        }.getType()))
+    }
+
+    private static ModelMapper strictModelMapper() {
+        ModelMapper modelMapper = new ModelMapper()
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT)
+        return modelMapper
+    }
+
+    private static List<FieldValueDTO> fieldValues(int size) {
+        return (1..size).collect { int i ->
+            FieldValueDTO fieldValue = new FieldValueDTO()
+            fieldValue.id = (long) i
+            fieldValue.instanceId = (long) (i / 5)
+            fieldValue.fieldId = (long) (i % 5)
+            fieldValue.optionId = (long) (i * 10)
+            fieldValue.stringValue = 'string' + i
+            fieldValue.numberValue = String.valueOf(i)
+            fieldValue.textValue = 'text' + i
+            fieldValue.dateValue = new Date(1760000000000L + i)
+            fieldValue.projectId = 1L
+            fieldValue.schemeCode = 'agile_issue'
+            fieldValue.optionValue = 'option' + i
+            fieldValue.fieldType = 'input'
+            fieldValue.objectVersionNumber = 1L
+            fieldValue.createdBy = 2L
+            fieldValue.creationDate = new Date(1760000000000L)
+            fieldValue.lastUpdatedBy = 3L
+            fieldValue.lastUpdateDate = new Date(1760000001000L)
+            return fieldValue
+        }
+    }
+
+    private static boolean same(Object converted, Object mapped) {
+        return JSON.toJSONString(converted) == JSON.toJSONString(mapped)
+    }
+}
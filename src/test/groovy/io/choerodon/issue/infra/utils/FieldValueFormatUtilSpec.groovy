@@ -0,0 +1,59 @@
+package io.choerodon.issue.infra.utils
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.text.SimpleDateFormat
+
+/**
+ * FieldValueFormatUtil的结果需要与原来每次创建SimpleDateFormat的实现保持一致，日期时间改为24小时制
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+class FieldValueFormatUtilSpec extends Specification {
+
+    static final String DATETIME_FORMAT = 'yyyy-MM-dd HH:mm:ss'
+    static final String DATE_FORMAT = 'yyyy-MM-dd'
+    static final String TIME_FORMAT = 'HH:mm:ss'
+
+    def "formatDateTime uses 24-hour clock"() {
+        given: '下午的时间'
+        Date date = new SimpleDateFormat(DATETIME_FORMAT).parse('2026-10-17 15:30:45')
+
+        expect: '按24小时制输出，不再输出为上午的时间'
+        FieldValueFormatUtil.formatDateTime(date) == '2026-10-17 15:30:45'
+        new SimpleDateFormat('yyyy-MM-dd hh:mm:ss').format(date) == '2026-10-17 03:30:45'
+    }
+
+    def "format random dates"() {
+        given: '固定种子的随机时间'
+        Random random = new Random(20261017L)
+
+        expect: '与SimpleDateFormat一致'
+        (1..10000).every {
+            Date date = new Date(Math.abs(random.nextLong()) % 4102444800000L)
+            FieldValueFormatUtil.formatDateTime(date) == new SimpleDateFormat(DATETIME_FORMAT).format(date) &&
+                    FieldValueFormatUtil.formatDate(date) == new SimpleDateFormat(DATE_FORMAT).format(date) &&
+                    FieldValueFormatUtil.formatTime(date) == new SimpleDateFormat(TIME_FORMAT).format(date)
+        }
+    }
+
+    @Unroll
+    def "parseDateTime #value"() {
+        expect: '与SimpleDateFormat.parse一致，忽略之后多余的字符'
+        FieldValueFormatUtil.parseDateTime(value) == new SimpleDateFormat(DATETIME_FORMAT).parse(value)
+
+        where:
+        value << ['2026-10-17 00:00:00', '2026-10-17 12:00:00', '2026-10-17 23:59:59', '2026-10-17 15:30:45.0']
+    }
+
+    @Unroll
+    def "truncateDecimal #number"() {
+        expect: '与按小数点split后取第一段一致'
+        FieldValueFormatUtil.truncateDecimal(number) == number.split('\\.')[0]
+
+        where:
+        number << ['12', '12.5', '-12.5', '0.25', '12.', '1.2.3']
+    }
+}
@@ -0,0 +1,100 @@
+package io.choerodon.issue.infra.utils
+
+import io.choerodon.core.exception.CommonException
+import io.choerodon.issue.infra.utils.jirarank.AgileRank
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * RankUtil的计算结果需要与AgileRank保持一致
+ *
+ * @author agent
+ * @since 2026/10/17
+ */
+class RankUtilSpec extends Specification {
+
+    static final String DIGITS = '0123456789abcdefghijklmnopqrstuvwxyz'
+    static final List<String> BOUNDARY_RANKS = ['0|000000:', '0|000001:', '0|000008:', '0|000009:', '0|00000a:i',
+                                                '0|zzzzzr:', '0|zzzzzs:', '0|zzzzzy:', '0|zzzzzz:', '1|i00000:']
+
+    def "mid"() {
+        expect: '与AgileRank一致'
+        RankUtil.mid() == AgileRank.min().between(AgileRank.max()).format()
+    }
+
+    @Unroll
+    def "genNext and genPre at #rank"() {
+        expect: '与AgileRank一致'
+        result { RankUtil.genNext(rank) } == result { AgileRank.parse(rank).genNext().format() }
+        result { RankUtil.genPre(rank) } == result { AgileRank.parse(rank).genPrev().format() }
+
+        where:
+        rank << BOUNDARY_RANKS
+    }
+
+    def "between boundary ranks"() {
+        expect: '与AgileRank一致'
+        [BOUNDARY_RANKS, BOUNDARY_RANKS].combinations().every { String left, String right ->
+            result { RankUtil.between(left, right) } == result { AgileRank.parse(left).between(AgileRank.parse(right)).format() }
+        }
+    }
+
+    def "random ranks"() {
+        given: '固定种子的随机rank'
+        Random random = new Random(20261017L)
+
+        expect: '与AgileRank一致'
+        (1..20000).every {
+            String left = randomRank(random)
+            String right = randomRank(random)
+            result { RankUtil.genNext(left) } == result { AgileRank.parse(left).genNext().format() } &&
+                    result { RankUtil.genPre(left) } == result { AgileRank.parse(left).genPrev().format() } &&
+                    result { RankUtil.between(left, right) } == result { AgileRank.parse(left).between(AgileRank.parse(right)).format() }
+        }
+    }
+
+    def "spread"() {
+        when: '生成均匀分布的rank'
+        List<String> ranks = RankUtil.spread(1000)
+
+        then: '从小到大排列且都在最小值与最大值之间'
+        ranks.size() == 1000
+        (1..<ranks.size()).every { ranks[it - 1] < ranks[it] }
+        ranks.first() > '0|000000:'
+        ranks.last() < '0|zzzzzz:'
+        RankUtil.spread(1) == [RankUtil.mid()]
+    }
+
+    /**
+     * 出错时比较错误编码
+     */
+    static String result(Closure<String> closure) {
+        try {
+            return closure.call()
+        } catch (CommonException e) {
+            return e.code
+        }
+    }
+
+    static String randomRank(Random random) {
+        StringBuilder rank = new StringBuilder('0|')
+        int kind = random.nextInt(6)
+        6.times { i ->
+            if (kind == 0) {
+                rank.append(i == 5 ? DIGITS.charAt(random.nextInt(10)) : '0')
+            } else if (kind == 1) {
+                rank.append(i == 5 ? DIGITS.charAt(26 + random.nextInt(10)) : 'z')
+            } else {
+                rank.append(DIGITS.charAt(random.nextInt(DIGITS.length())))
+            }
+        }
+        rank.append(':')
+        if (random.nextInt(5) == 0) {
+            random.nextInt(8).times { rank.append(DIGITS.charAt(random.nextInt(DIGITS.length()))) }
+        }
+        while (rank.charAt(rank.length() - 1) == '0' as char && rank.indexOf(':') < rank.length() - 1) {
+            rank.setLength(rank.length() - 1)
+        }
+        return rank.toString()
+    }
+}